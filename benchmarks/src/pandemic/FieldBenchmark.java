@@ -0,0 +1,101 @@
+package pandemic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the neighbourhood queries of the field, through the Location
+ * methods the views and the older code use and through the cell methods
+ * the steps use. Each call looks at the next of a fixed random sequence of
+ * locations.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldBenchmark {
+    private static final int SIDE = 500;
+    private static final int PROBES = 4096;
+
+    // The probability of a location being taken.
+    @Param({"0.2", "0.5", "0.9"})
+    public double density;
+
+    private Field field;
+    private Location[] locations;
+    private int[] cells;
+    private final int[] neighbours = new int[Field.NEIGHBOURS];
+    private final Random rand = new Random(Randomizer.SEED);
+    private int next;
+
+    @Setup
+    public void populate() {
+        field = new Field(SIDE, SIDE);
+        Population population = new Population(field);
+        for (int row = 0; row < SIDE; row++) {
+            for (int col = 0; col < SIDE; col++) {
+                if (rand.nextDouble() < density) {
+                    population.add(row, col, rand.nextBoolean() ? State.HEALTHY : State.INFECTED);
+                }
+            }
+        }
+        locations = new Location[PROBES];
+        cells = new int[PROBES];
+        for (int k = 0; k < PROBES; k++) {
+            int row = rand.nextInt(SIDE);
+            int col = rand.nextInt(SIDE);
+            locations[k] = new Location(row, col);
+            cells[k] = field.cell(row, col);
+        }
+    }
+
+    private int probe() {
+        next = next + 1 & PROBES - 1;
+        return next;
+    }
+
+    @Benchmark
+    public List<Location> adjacentLocations() {
+        return field.adjacentLocations(locations[probe()]);
+    }
+
+    @Benchmark
+    public Location freeAdjacentLocation() {
+        return field.freeAdjacentLocation(locations[probe()]);
+    }
+
+    @Benchmark
+    public void adjacentCells(Blackhole hole) {
+        int count = field.adjacentCells(cells[probe()], neighbours, rand);
+        hole.consume(count);
+        hole.consume(neighbours);
+    }
+
+    @Benchmark
+    public int freeAdjacentCell() {
+        return field.freeAdjacentCell(cells[probe()], rand);
+    }
+
+    @Benchmark
+    public int countAdjacentInfected() {
+        return field.countAdjacent(cells[probe()], State.INFECTED);
+    }
+}
@@ -0,0 +1,71 @@
+package pandemic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the counting of the people in each state, which the views need
+ * at each step, and the populating of a new field. The counts are kept by
+ * the population; walking the field, as the views used to do, is measured
+ * for comparison.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsBenchmark {
+    // The side of the square field.
+    @Param({"100", "500", "2000"})
+    public int size;
+
+    private Simulator simulator;
+    private Field field;
+    private final int[] counts = new int[State.values().length];
+
+    @Setup
+    public void create() {
+        simulator = new Simulator(size, size);
+        field = simulator.getField();
+    }
+
+    @Benchmark
+    public FieldStats countersSnapshot() {
+        return simulator.getPopulation().getStats(0);
+    }
+
+    @Benchmark
+    public int[] fieldWalk() {
+        Arrays.fill(counts, 0);
+        for (int row = 0; row < field.getDepth(); row++) {
+            for (int col = 0; col < field.getWidth(); col++) {
+                State state = field.getStateAt(row, col);
+                if (state != null) {
+                    counts[state.ordinal()]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public FieldStats populate() {
+        simulator.reset();
+        return simulator.getStats();
+    }
+}
@@ -0,0 +1,76 @@
+package pandemic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures whole simulation steps, for several field sizes, densities,
+ * update modes and numbers of threads. The simulation starts afresh at
+ * each iteration, with few infected people so that the disease is still
+ * spreading when the iteration ends.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class StepBenchmark {
+    // The side of the square field.
+    @Param({"100", "500", "2000", "5000"})
+    public int size;
+
+    // The probability of a location starting with somebody.
+    @Param({"0.2", "0.5", "0.9"})
+    public double density;
+
+    @Param({"false", "true"})
+    public boolean synchronous;
+
+    // The number of threads running a step.
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private Simulator simulator;
+
+    @Setup(Level.Trial)
+    public void create() {
+        simulator = new Simulator(size, size);
+        // one person in a hundred starts infected, the others healthy
+        simulator.setParameters(ParameterSpace.Parameter.HEALTHY.set(
+            ParameterSpace.Parameter.INFECTED.set(SimulationParameters.DEFAULT, 0.01 * density),
+            density));
+        simulator.setSynchronous(synchronous);
+        simulator.setParallelism(parallelism);
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        simulator.reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        simulator.setParallelism(1);
+    }
+
+    @Benchmark
+    public int simulateOneStep() {
+        return simulator.simulateOneStep();
+    }
+}
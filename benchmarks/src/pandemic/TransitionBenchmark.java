@@ -0,0 +1,54 @@
+package pandemic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the state transitions: through the shared generator, as the
+ * older code does, and through a counter-based generator reset for each
+ * person, as the steps do.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransitionBenchmark {
+    private final SimulationParameters parameters = SimulationParameters.DEFAULT;
+    private final AgentRandom rand = new AgentRandom();
+    private int person;
+
+    @Benchmark
+    public State sharedGenerator() {
+        return Transition.nextState(State.INFECTED, Event.INFECTION_DURATION);
+    }
+
+    @Benchmark
+    public State infection() {
+        rand.reset(Randomizer.SEED, 1, person++, AgentRandom.CHANGE);
+        return Transition.nextState(parameters, State.HEALTHY, Event.INFECTION_RATE, rand);
+    }
+
+    @Benchmark
+    public State endOfDisease() {
+        rand.reset(Randomizer.SEED, 1, person++, AgentRandom.CHANGE);
+        return Transition.nextState(parameters, State.INFECTED, Event.INFECTION_DURATION, rand);
+    }
+
+    @Benchmark
+    public State noOutcome() {
+        return Transition.nextState(parameters, State.DEAD, Event.INFECTION_RATE, rand);
+    }
+}
@@ -0,0 +1,83 @@
+package pandemic;
+
+import java.util.Random;
+
+/**
+ * A counter-based random generator. Instead of one generator shared by the
+ * whole simulation, a stream of numbers is derived from the seed, the step,
+ * the person and what the numbers are drawn for. The draws of a person thus
+ * do not depend on who was stepped before them or on which thread, and the
+ * generator itself can be reused by a thread for any number of people.
+ * The streams are SplitMix64 sequences, which are cheap to position.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class AgentRandom extends Random {
+    // What numbers can be drawn for.
+    static final int POPULATE = 0;
+    static final int MOVE = 1;
+    static final int CHANGE = 2;
+    static final int REPLICATE = 3;
+
+    // The increment of the SplitMix64 sequence.
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private long state;
+
+    AgentRandom() {
+        super(0);
+    }
+
+    /**
+     * Position the generator at the start of a stream.
+     *
+     * @param seed    The seed of the simulation.
+     * @param step    The step the numbers are drawn at.
+     * @param key     Who the numbers are drawn for, e.g. a person or a cell.
+     * @param purpose What the numbers are drawn for.
+     * @return This generator.
+     */
+    AgentRandom reset(long seed, int step, int key, int purpose) {
+        long h = mix(seed + GOLDEN_GAMMA);
+        h = mix(h ^ step);
+        h = mix(h ^ key);
+        state = mix(h ^ purpose);
+        return this;
+    }
+
+    /**
+     * Only a reset() gives a stream its meaning; this is here so that the
+     * inherited constructor leaves a usable generator.
+     */
+    @Override
+    public void setSeed(long seed) {
+        state = seed;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    /**
+     * The SplitMix64 finalizer: scrambles the bits of a long.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
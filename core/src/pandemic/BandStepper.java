@@ -0,0 +1,325 @@
+package pandemic;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs the simulation steps. The field is cut into horizontal bands of at
+ * least BAND_HEIGHT rows, one per row of chunks of the field, and every
+ * person is assigned to the chunk, hence the band, they start the step in.
+ * When the people do not move, the sleeping chunks are skipped altogether,
+ * and the people are only sorted again when the population changes.
+ * The even bands are stepped first, followed by the odd bands. A person only
+ * moves to an adjacent cell and only looks at the cells around it, so two
+ * bands of the same colour never touch the same cells and can be stepped in
+ * parallel.
+ * Synchronous steps only move the people band by band; their states are
+ * then updated over plain ranges of the population, since those updates
+ * only read the field.
+ * Without a pool the same schedule runs in the calling thread. As every
+ * person draws from their own random streams, a run gives the same results
+ * with and without a pool, whatever its size.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class BandStepper {
+    // The minimal height of a band. People reach two rows beyond their band
+    // (one move, then one look around), so a band separating two bands of
+    // the same colour needs to be taller than that.
+    static final int BAND_HEIGHT = Field.CHUNK_SIZE;
+    // The number of people updated by one task of a synchronous step.
+    private static final int RANGE_SIZE = 4096;
+
+    private final Population population;
+    private final Field field;
+    // The pool running the bands, or null to run them in the calling thread.
+    private final ForkJoinPool pool;
+    // The random generator of the calling thread.
+    private final AgentRandom rand = new AgentRandom();
+    // The number of bands, the last one takes the leftover rows.
+    private final int bands;
+    // The number of chunks in a band.
+    private final int chunkCols;
+    // The people sorted by chunk; chunk c is order[chunkStart[c]..chunkStart[c+1])
+    // and band b is made of the chunks b * chunkCols up to (b + 1) * chunkCols.
+    private final int[] order;
+    private final int[] chunkStart;
+    // The population version the people were last sorted at.
+    private int sortedVersion;
+    private boolean sorted;
+    // Whether to time the phases of the steps, and their last durations.
+    private boolean timed;
+    private long moveNanos;
+    private long updateNanos;
+    private long commitNanos;
+
+    /**
+     * Prepare the steps of the given population.
+     *
+     * @param population The people to step.
+     * @param pool       The pool running the bands, or null to run them in
+     *                   the calling thread.
+     */
+    BandStepper(Population population, ForkJoinPool pool) {
+        this.population = population;
+        this.field = population.getField();
+        this.pool = pool;
+        bands = field.getChunkRows();
+        chunkCols = field.getChunkCols();
+        order = new int[field.getDepth() * field.getWidth()];
+        chunkStart = new int[bands * chunkCols + 1];
+    }
+
+    /**
+     * Run one step of every active person.
+     *
+     * @return The number of people who were infected during the step.
+     */
+    int step() {
+        long start = timed ? System.nanoTime() : 0;
+        int infected = forEachByBand(population::step);
+        if (timed) {
+            moveNanos = 0;
+            updateNanos = System.nanoTime() - start;
+            commitNanos = 0;
+        }
+        return infected;
+    }
+
+    /**
+     * Run one synchronous step of every active person: everybody moves, then every
+     * state is updated from the states left by the previous step.
+     *
+     * @return The number of people who were infected during the step.
+     */
+    int stepSynchronously() {
+        long start = timed ? System.nanoTime() : 0;
+        if (population.isMoving()) {
+            forEachByBand((index, rand) -> {
+                population.moveUnlessDead(index, rand);
+                return false;
+            });
+        }
+        long moved = timed ? System.nanoTime() : 0;
+        int infected = forEachInRange(population::update);
+        long updated = timed ? System.nanoTime() : 0;
+        population.commit();
+        forEachInRange((index, rand) -> {
+            population.refresh(index);
+            return false;
+        });
+        if (timed) {
+            moveNanos = moved - start;
+            updateNanos = updated - moved;
+            commitNanos = System.nanoTime() - updated;
+        }
+        return infected;
+    }
+
+    /**
+     * Choose whether to time the phases of the next steps. The durations of
+     * the phases which do not apply are set to 0: asynchronous steps move
+     * and update each person in turn, which counts as updating.
+     *
+     * @param timed Whether to time the phases.
+     */
+    void setTimed(boolean timed) {
+        this.timed = timed;
+    }
+
+    /**
+     * @return The time spent moving the people in the last timed step, in
+     * nanoseconds.
+     */
+    long getMoveNanos() {
+        return moveNanos;
+    }
+
+    /**
+     * @return The time spent working out the new states in the last timed
+     * step, in nanoseconds.
+     */
+    long getUpdateNanos() {
+        return updateNanos;
+    }
+
+    /**
+     * @return The time spent committing the new states in the last timed
+     * step, in nanoseconds.
+     */
+    long getCommitNanos() {
+        return commitNanos;
+    }
+
+    /**
+     * @return The pool running the bands, or null.
+     */
+    ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Apply a kernel to every active person, the even bands first, then the odd
+     * ones.
+     *
+     * @param kernel What to do with each person.
+     * @return The number of people for which the kernel returned true.
+     */
+    private int forEachByBand(Kernel kernel) {
+        if (population.isMoving() || !sorted || sortedVersion != population.getVersion()) {
+            sortByChunk();
+        }
+        int count = 0;
+        for (int colour = 0; colour < 2; colour++) {
+            int colourBands = (bands - colour + 1) / 2;
+            if (pool == null) {
+                for (int k = 0; k < colourBands; k++) {
+                    count += applyToBand(kernel, colour + 2 * k, rand);
+                }
+            } else if (colourBands > 0) {
+                count += pool.invoke(new BandTask(kernel, colour, 0, colourBands));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Apply a kernel to every active person in population order.
+     *
+     * @param kernel What to do with each person.
+     * @return The number of people for which the kernel returned true.
+     */
+    private int forEachInRange(Kernel kernel) {
+        if (pool == null) {
+            return applyToRange(kernel, 0, population.activeCount(), rand);
+        }
+        return pool.invoke(new RangeTask(kernel, 0, population.activeCount()));
+    }
+
+    /**
+     * Apply a kernel to the people of a band, chunk by chunk. Whether a
+     * chunk sleeps is checked when its turn comes, since the chunks before
+     * it may have woken it up.
+     */
+    private int applyToBand(Kernel kernel, int band, AgentRandom rand) {
+        boolean moving = population.isMoving();
+        int count = 0;
+        for (int chunk = band * chunkCols; chunk < (band + 1) * chunkCols; chunk++) {
+            if (!moving && !field.isChunkAwake(chunk)) {
+                continue;
+            }
+            for (int k = chunkStart[chunk]; k < chunkStart[chunk + 1]; k++) {
+                if (kernel.apply(order[k], rand)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int applyToRange(Kernel kernel, int from, int to, AgentRandom rand) {
+        int[] active = population.getActive();
+        int count = 0;
+        for (int k = from; k < to; k++) {
+            if (kernel.apply(active[k], rand)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counting sort of the people by the chunk of their current cell. The
+     * sort is stable, so each chunk keeps the population order.
+     */
+    private void sortByChunk() {
+        int size = population.activeCount();
+        int[] active = population.getActive();
+        int chunks = chunkStart.length - 1;
+        int[] next = new int[chunks + 1];
+        for (int i = 0; i < size; i++) {
+            next[field.chunkOf(population.getCell(active[i])) + 1]++;
+        }
+        for (int c = 0; c < chunks; c++) {
+            next[c + 1] += next[c];
+        }
+        System.arraycopy(next, 0, chunkStart, 0, chunks + 1);
+        for (int i = 0; i < size; i++) {
+            order[next[field.chunkOf(population.getCell(active[i]))]++] = active[i];
+        }
+        sortedVersion = population.getVersion();
+        sorted = true;
+    }
+
+    /**
+     * What a step does with one person.
+     */
+    private interface Kernel {
+        /**
+         * @param index The person.
+         * @param rand  The random generator of the running thread.
+         * @return Whether the person is to be counted.
+         */
+        boolean apply(int index, AgentRandom rand);
+    }
+
+    /**
+     * Applies a kernel to a range of the bands of one colour, splitting it
+     * in halves until a single band is left.
+     */
+    private class BandTask extends RecursiveTask<Integer> {
+        private final Kernel kernel;
+        private final int colour;
+        // The range of bands colour, colour + 2, ... to step.
+        private final int from;
+        private final int to;
+
+        BandTask(Kernel kernel, int colour, int from, int to) {
+            this.kernel = kernel;
+            this.colour = colour;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                BandTask left = new BandTask(kernel, colour, from, middle);
+                left.fork();
+                int right = new BandTask(kernel, colour, middle, to).compute();
+                return left.join() + right;
+            }
+            return applyToBand(kernel, colour + 2 * from, new AgentRandom());
+        }
+    }
+
+    /**
+     * Applies a kernel to a range of the active people, splitting it in halves
+     * until it is small enough.
+     */
+    private class RangeTask extends RecursiveTask<Integer> {
+        private final Kernel kernel;
+        private final int from;
+        private final int to;
+
+        RangeTask(Kernel kernel, int from, int to) {
+            this.kernel = kernel;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from > RANGE_SIZE) {
+                int middle = (from + to) >>> 1;
+                RangeTask left = new RangeTask(kernel, from, middle);
+                left.fork();
+                int right = new RangeTask(kernel, middle, to).compute();
+                return left.join() + right;
+            }
+            return applyToRange(kernel, from, to, new AgentRandom());
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package pandemic;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.management.JMException;
+
+/**
+ * Runs a simulation without any view, as fast as it goes, and writes the
+ * number of people in each state after every step as CSV, to the standard
+ * output or to a file. With more than one replicate, an ensemble is run
+ * instead, and the mean, variance, minimum and maximum of every count are
+ * written.
+ * A single run is published through JMX as pandemic:type=Engine, where it
+ * can be watched, paused, stepped and given new probabilities; with
+ * --paused it waits for a resume or single step before the first step.
+ * With --checkpoint, a single run saves its state to a file every
+ * --checkpoint-every steps and at the end; --resume carries on from such a
+ * file, with the size, seed, settings and parameters saved in it, up to
+ * step --steps, and writes the counts from the step it was saved at on.
+ * With --record, every step of a single run is recorded to a trajectory
+ * file, with a keyframe every --keyframe-every steps.
+ * <p>
+ * Usage: java pandemic.BatchRunner [--depth n] [--width n] [--steps n]
+ * [--seed n] [--replicates n] [--threads n] [--synchronous] [--no-movement]
+ * [--paused] [--healthy p] [--infected p] [--infection-rate p]
+ * [--infection-duration p] [--mortality-rate p] [--max-contamination n]
+ * [--checkpoint file] [--checkpoint-every n] [--resume file] [--record file]
+ * [--keyframe-every n] [--output file]
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class BatchRunner {
+    private static final String USAGE = "Usage: java pandemic.BatchRunner [--depth n] [--width n]"
+        + " [--steps n] [--seed n] [--replicates n] [--threads n] [--synchronous] [--no-movement]"
+        + " [--paused] [--healthy p] [--infected p] [--infection-rate p] [--infection-duration p]"
+        + " [--mortality-rate p] [--max-contamination n] [--checkpoint file]"
+        + " [--checkpoint-every n] [--resume file] [--record file] [--keyframe-every n]"
+        + " [--output file]";
+
+    private int depth = Simulator.DEFAULT_DEPTH;
+    private int width = Simulator.DEFAULT_WIDTH;
+    private int steps = Simulator.ITERATIONS;
+    private long seed = Randomizer.SEED;
+    private int replicates = 1;
+    // The number of threads, 0 for one per processor with an ensemble and
+    // a single one otherwise.
+    private int threads;
+    private boolean synchronous;
+    private boolean moving = true;
+    // Whether a single run starts paused.
+    private boolean paused;
+    private double healthy = SimulationParameters.DEFAULT.getHealthyCreationProbability();
+    private double infected = SimulationParameters.DEFAULT.getInfectedCreationProbability();
+    private double infectionRate = SimulationParameters.DEFAULT.getInfectionRate();
+    private double infectionDuration = SimulationParameters.DEFAULT.getInfectionDuration();
+    private double mortalityRate = SimulationParameters.DEFAULT.getMortalityRate();
+    private int maxContamination = SimulationParameters.DEFAULT.getMaxContamination();
+    // The file to save the state to, or null, and every how many steps.
+    private String checkpoint;
+    private int checkpointEvery = 100;
+    // The file to carry on from, or null to start afresh.
+    private String resume;
+    // The file to record the trajectory to, or null, and every how many
+    // steps a keyframe is recorded.
+    private String record;
+    private int keyframeEvery = TrajectoryRecorder.DEFAULT_KEYFRAME_INTERVAL;
+    // The file to write to, or null for the standard output.
+    private String output;
+
+    public static void main(String[] args) {
+        BatchRunner runner = new BatchRunner();
+        try {
+            runner.parse(args);
+            runner.run();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Read the options.
+     *
+     * @param args The command line.
+     * @throws IllegalArgumentException If an option is unknown or its value
+     *                                  is missing, malformed or out of range.
+     */
+    void parse(String[] args) {
+        for (int k = 0; k < args.length; k++) {
+            String option = args[k];
+            switch (option) {
+                case "--synchronous":
+                    synchronous = true;
+                    continue;
+                case "--no-movement":
+                    moving = false;
+                    continue;
+                case "--paused":
+                    paused = true;
+                    continue;
+                default:
+                    break;
+            }
+            if (k + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++k];
+            try {
+                switch (option) {
+                    case "--depth":
+                        depth = Integer.parseInt(value);
+                        break;
+                    case "--width":
+                        width = Integer.parseInt(value);
+                        break;
+                    case "--steps":
+                        steps = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--replicates":
+                        replicates = Integer.parseInt(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--healthy":
+                        healthy = Double.parseDouble(value);
+                        break;
+                    case "--infected":
+                        infected = Double.parseDouble(value);
+                        break;
+                    case "--infection-rate":
+                        infectionRate = Double.parseDouble(value);
+                        break;
+                    case "--infection-duration":
+                        infectionDuration = Double.parseDouble(value);
+                        break;
+                    case "--mortality-rate":
+                        mortalityRate = Double.parseDouble(value);
+                        break;
+                    case "--max-contamination":
+                        maxContamination = Integer.parseInt(value);
+                        break;
+                    case "--checkpoint":
+                        checkpoint = value;
+                        break;
+                    case "--checkpoint-every":
+                        checkpointEvery = Integer.parseInt(value);
+                        break;
+                    case "--resume":
+                        resume = value;
+                        break;
+                    case "--record":
+                        record = value;
+                        break;
+                    case "--keyframe-every":
+                        keyframeEvery = Integer.parseInt(value);
+                        break;
+                    case "--output":
+                        output = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad value for " + option + ": " + value);
+            }
+        }
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("The dimensions must be greater than zero.");
+        }
+        if (steps < 0) {
+            throw new IllegalArgumentException("The number of steps cannot be negative.");
+        }
+        if (replicates <= 0) {
+            throw new IllegalArgumentException("The number of replicates must be greater than zero.");
+        }
+        if (threads < 0) {
+            throw new IllegalArgumentException("The number of threads cannot be negative.");
+        }
+        if (checkpointEvery <= 0) {
+            throw new IllegalArgumentException("Checkpoints must be at least one step apart.");
+        }
+        if (keyframeEvery <= 0) {
+            throw new IllegalArgumentException("Keyframes must be at least one step apart.");
+        }
+        if (replicates > 1 && (checkpoint != null || resume != null || record != null)) {
+            throw new IllegalArgumentException("An ensemble cannot be checkpointed nor recorded.");
+        }
+    }
+
+    /**
+     * Run the simulation and write the counts of the initial state and of
+     * every step.
+     *
+     * @throws IOException              If the counts or the checkpoints
+     *                                  cannot be written, or the checkpoint
+     *                                  to resume from cannot be read.
+     * @throws IllegalArgumentException If the probabilities do not make a
+     *                                  model.
+     */
+    void run() throws IOException {
+        SimulationParameters parameters = new SimulationParameters(healthy, infected,
+            infectionRate, infectionDuration, mortalityRate, maxContamination);
+        if (replicates > 1) {
+            runEnsemble(parameters);
+            return;
+        }
+        Checkpoint start = resume == null ? null : Checkpoint.read(Paths.get(resume));
+        if (start != null) {
+            depth = start.getDepth();
+            width = start.getWidth();
+        }
+        EngineMonitor monitor = new EngineMonitor();
+        TrajectoryRecorder recorder = record == null
+            ? null : new TrajectoryRecorder(Paths.get(record), depth, width, keyframeEvery);
+        Simulator simulator = recorder == null
+            ? new Simulator(depth, width, monitor)
+            : new Simulator(depth, width, monitor, recorder);
+        monitor.setSimulator(simulator);
+        if (paused) {
+            monitor.pause();
+        }
+        try {
+            monitor.register("batch");
+        } catch (JMException e) {
+            System.err.println("Cannot publish the run through JMX: " + e.getMessage());
+        }
+        simulator.setParameters(parameters);
+        simulator.setSeed(seed);
+        simulator.setSynchronous(synchronous);
+        simulator.setMoving(moving);
+        simulator.setParallelism(Math.max(1, threads));
+        simulator.reset();
+        if (start != null) {
+            simulator.restore(start);
+        }
+        CheckpointWriter checkpoints = checkpoint == null
+            ? null : new CheckpointWriter(Paths.get(checkpoint));
+        try (BufferedWriter out = open()) {
+            out.write("step");
+            for (State state : State.values()) {
+                out.write(',');
+                out.write(state.name().toLowerCase());
+            }
+            out.newLine();
+            write(out, simulator.getStats());
+            // The step of the last checkpoint being written.
+            int saved = -1;
+            for (int step = simulator.getStats().getStep(); step < steps; step++) {
+                monitor.awaitTurn();
+                int done = simulator.simulateOneStep();
+                write(out, simulator.getStats());
+                if (checkpoints != null && done % checkpointEvery == 0
+                    && checkpoints.offer(simulator.checkpoint())) {
+                    saved = done;
+                }
+            }
+            if (checkpoints != null) {
+                checkpoints.await();
+                if (saved != simulator.getStats().getStep()) {
+                    checkpoints.offer(simulator.checkpoint());
+                }
+                checkpoints.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            simulator.setParallelism(1);
+            try {
+                monitor.unregister();
+            } catch (JMException e) {
+                // the JVM is about to exit anyway
+            }
+            if (recorder != null) {
+                recorder.close();
+            }
+        }
+    }
+
+    /**
+     * Run the replicates and write the statistics of every step.
+     *
+     * @param parameters The parameters of the replicates.
+     * @throws IOException If the statistics cannot be written.
+     */
+    private void runEnsemble(SimulationParameters parameters) throws IOException {
+        Ensemble ensemble = new Ensemble(depth, width, parameters, steps);
+        ensemble.setSynchronous(synchronous);
+        ensemble.setMoving(moving);
+        ForkJoinPool pool = threads == 0 ? new ForkJoinPool() : new ForkJoinPool(threads);
+        EnsembleStats stats;
+        try {
+            stats = ensemble.run(replicates, seed, pool);
+        } finally {
+            pool.shutdown();
+        }
+        try (BufferedWriter out = open()) {
+            out.write("step");
+            for (State state : State.values()) {
+                String name = state.name().toLowerCase();
+                out.write("," + name + "_mean," + name + "_variance," + name + "_min," + name + "_max");
+            }
+            out.newLine();
+            for (int step = 0; step <= stats.getSteps(); step++) {
+                out.write(Integer.toString(step));
+                for (State state : State.values()) {
+                    out.write("," + stats.getMean(step, state) + "," + stats.getVariance(step, state)
+                        + "," + stats.getMin(step, state) + "," + stats.getMax(step, state));
+                }
+                out.newLine();
+            }
+        }
+    }
+
+    /**
+     * @return A writer to the output file, or to the standard output.
+     */
+    private BufferedWriter open() throws IOException {
+        Writer writer = output == null
+            ? new OutputStreamWriter(System.out)
+            : new FileWriter(output);
+        return new BufferedWriter(writer);
+    }
+
+    private static void write(BufferedWriter out, FieldStats stats) throws IOException {
+        out.write(Integer.toString(stats.getStep()));
+        for (State state : State.values()) {
+            out.write(',');
+            out.write(Integer.toString(stats.getPopulationCount(state)));
+        }
+        out.newLine();
+    }
+}
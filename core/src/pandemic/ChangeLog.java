@@ -0,0 +1,89 @@
+package pandemic;
+
+/**
+ * The cells of a field which changed since the previous log of the same
+ * field, with what they hold now: every cell a people arrived at, left or
+ * changed state on, once, whatever happened to it in between. A log is
+ * complete when the whole field may have changed, after it was cleared or
+ * copied; the cells are then not listed. A log never changes once made, so
+ * it can be handed over to other threads.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class ChangeLog {
+    // Shared copy of the states, values() clones the array on each call.
+    private static final State[] STATES = State.values();
+
+    private final int step;
+    // The number of the log among those of its field, from 1.
+    private final long serial;
+    private final boolean complete;
+    private final int size;
+    // The cells, as row * width + col, and their state tags.
+    private final int[] locations;
+    private final byte[] tags;
+
+    ChangeLog(int step, long serial, boolean complete, int size, int[] locations, byte[] tags) {
+        this.step = step;
+        this.serial = serial;
+        this.complete = complete;
+        this.size = size;
+        this.locations = locations;
+        this.tags = tags;
+    }
+
+    /**
+     * @return The step the log was made at.
+     */
+    int getStep() {
+        return step;
+    }
+
+    /**
+     * @return The number of the log among those of its field: a view which
+     * was given the previous one can apply this one to what it has.
+     */
+    long getSerial() {
+        return serial;
+    }
+
+    /**
+     * @return Whether the whole field may have changed, in which case the
+     * cells are not listed.
+     */
+    boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return The number of cells which changed.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return The location of the k-th cell which changed, as
+     * row * width + col.
+     */
+    int getLocation(int k) {
+        return locations[k];
+    }
+
+    /**
+     * @return The state tag of the k-th cell which changed: Field.EMPTY, or
+     * the state ordinal + 1.
+     */
+    int getTag(int k) {
+        return tags[k];
+    }
+
+    /**
+     * @return The state of the people on the k-th cell which changed, or
+     * null if it is empty.
+     */
+    State getState(int k) {
+        return tags[k] == Field.EMPTY ? null : STATES[tags[k] - 1];
+    }
+}
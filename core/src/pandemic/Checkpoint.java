@@ -0,0 +1,267 @@
+package pandemic;
+
+import java.io.IOException;
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Everything needed to carry on a simulation from the end of a step: the
+ * step, the seed, the settings, the parameters and every person's state,
+ * contamination and location. The random streams are derived from the seed
+ * and the step, so those two are the whole state of the random generators.
+ * A checkpoint is a copy, taken in one go at a step boundary, which can then
+ * be written while the simulation goes on.
+ * <p>
+ * The file starts with a header (magic number, version, sizes, step, seed,
+ * settings and parameters, big-endian) followed by the states, the
+ * contamination counters and the locations (row * width + col) of the
+ * people, in population order. It is written through a buffer to a
+ * temporary file, forced to the disk, which then replaces the previous
+ * checkpoint, so that a crash while writing leaves the previous checkpoint
+ * intact. Files are read the same way: nothing stays mapped once a file is
+ * closed, as a mapped file cannot be replaced on some systems.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class Checkpoint {
+    private static final int MAGIC = 0x504e4443; // "PNDC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * 4 + 4 + 8 + 2 + 5 * 8 + 4 + 4;
+    // The size of the buffer the files are written and read through.
+    private static final int BUFFER_SIZE = 1 << 20;
+    // Shared copy of the states, values() clones the array on each call.
+    private static final State[] STATES = State.values();
+
+    private final int depth;
+    private final int width;
+    private final int step;
+    private final long seed;
+    private final boolean synchronous;
+    private final boolean moving;
+    private final SimulationParameters parameters;
+    private final int size;
+    private final byte[] states;
+    private final int[] contamination;
+    // The locations of the people, as row * width + col.
+    private final int[] locations;
+
+    Checkpoint(int depth, int width, int step, long seed, boolean synchronous, boolean moving,
+               SimulationParameters parameters, int size, byte[] states, int[] contamination,
+               int[] locations) {
+        this.depth = depth;
+        this.width = width;
+        this.step = step;
+        this.seed = seed;
+        this.synchronous = synchronous;
+        this.moving = moving;
+        this.parameters = parameters;
+        this.size = size;
+        this.states = states;
+        this.contamination = contamination;
+        this.locations = locations;
+    }
+
+    int getDepth() {
+        return depth;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getStep() {
+        return step;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    boolean isSynchronous() {
+        return synchronous;
+    }
+
+    boolean isMoving() {
+        return moving;
+    }
+
+    SimulationParameters getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return The number of people.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return The state of the given person.
+     */
+    State getState(int index) {
+        return STATES[states[index]];
+    }
+
+    /**
+     * @return The number of steps the given person has been infected for.
+     */
+    int getContamination(int index) {
+        return contamination[index];
+    }
+
+    /**
+     * @return The row of the given person.
+     */
+    int getRow(int index) {
+        return locations[index] / width;
+    }
+
+    /**
+     * @return The column of the given person.
+     */
+    int getCol(int index) {
+        return locations[index] % width;
+    }
+
+    /**
+     * Write the checkpoint to a file, replacing it if it exists.
+     *
+     * @param file The file.
+     * @throws IOException If the file cannot be written.
+     */
+    void write(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(depth).putInt(width)
+                .putInt(step).putLong(seed)
+                .put((byte) (synchronous ? 1 : 0)).put((byte) (moving ? 1 : 0))
+                .putDouble(parameters.getHealthyCreationProbability())
+                .putDouble(parameters.getInfectedCreationProbability())
+                .putDouble(parameters.getInfectionRate())
+                .putDouble(parameters.getInfectionDuration())
+                .putDouble(parameters.getMortalityRate())
+                .putInt(parameters.getMaxContamination())
+                .putInt(size);
+            for (int k = 0; k < size; ) {
+                if (!buffer.hasRemaining()) {
+                    flush(channel, buffer);
+                }
+                int count = Math.min(buffer.remaining(), size - k);
+                buffer.put(states, k, count);
+                k += count;
+            }
+            for (int[] values : new int[][] {contamination, locations}) {
+                for (int k = 0; k < size; k++) {
+                    if (buffer.remaining() < 4) {
+                        flush(channel, buffer);
+                    }
+                    buffer.putInt(values[k]);
+                }
+            }
+            flush(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Write what a buffer holds to a channel, and empty it.
+     */
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Read a checkpoint from a file.
+     *
+     * @param file The file.
+     * @return The checkpoint.
+     * @throws IOException If the file cannot be read or is not a checkpoint.
+     */
+    static Checkpoint read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException(file + " is not a checkpoint");
+            }
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.flip();
+            fill(channel, buffer, HEADER_SIZE);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException(file + " is not a checkpoint of this version");
+            }
+            int depth = buffer.getInt();
+            int width = buffer.getInt();
+            int step = buffer.getInt();
+            long seed = buffer.getLong();
+            boolean synchronous = buffer.get() != 0;
+            boolean moving = buffer.get() != 0;
+            SimulationParameters parameters = new SimulationParameters(buffer.getDouble(),
+                buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                buffer.getInt());
+            int size = buffer.getInt();
+            if (size < 0 || size > (long) depth * width
+                || channel.size() != HEADER_SIZE + 9L * size) {
+                throw new IOException(file + " is truncated or corrupt");
+            }
+            byte[] states = new byte[size];
+            int[] contamination = new int[size];
+            int[] locations = new int[size];
+            for (int k = 0; k < size; ) {
+                fill(channel, buffer, 1);
+                int count = Math.min(buffer.remaining(), size - k);
+                buffer.get(states, k, count);
+                k += count;
+            }
+            for (int[] values : new int[][] {contamination, locations}) {
+                for (int k = 0; k < size; k++) {
+                    fill(channel, buffer, 4);
+                    values[k] = buffer.getInt();
+                }
+            }
+            for (int k = 0; k < size; k++) {
+                if (states[k] < 0 || states[k] >= STATES.length
+                    || locations[k] < 0 || locations[k] >= depth * width) {
+                    throw new IOException(file + " is corrupt");
+                }
+            }
+            return new Checkpoint(depth, width, step, seed, synchronous, moving, parameters,
+                size, states, contamination, locations);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file + " holds invalid parameters: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Read from a channel into a buffer being read, unless it already holds
+     * the given number of bytes.
+     *
+     * @throws EOFException If the channel ends before.
+     */
+    private static void fill(FileChannel channel, ByteBuffer buffer, int bytes)
+        throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("The checkpoint ends unexpectedly");
+            }
+        }
+        buffer.flip();
+    }
+}
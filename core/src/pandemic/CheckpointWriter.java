@@ -0,0 +1,96 @@
+package pandemic;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Writes checkpoints to a file in a thread of its own, so that the steps
+ * only wait for the checkpoint to be copied. A checkpoint offered while the
+ * previous one is still being written is dropped rather than queued: the
+ * file always holds the latest checkpoint written in full, and a slow disk
+ * never holds up the simulation nor piles up copies in memory.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class CheckpointWriter implements AutoCloseable {
+    private final Path file;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "checkpoint-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // The write in progress or last done, null before the first.
+    private Future<?> pending;
+
+    /**
+     * @param file The file to write the checkpoints to.
+     */
+    CheckpointWriter(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Start writing a checkpoint, unless the previous one is still being
+     * written.
+     *
+     * @param checkpoint The checkpoint.
+     * @return Whether the checkpoint is being written.
+     * @throws IOException If the previous checkpoint could not be written.
+     */
+    boolean offer(Checkpoint checkpoint) throws IOException {
+        if (pending != null) {
+            if (!pending.isDone()) {
+                return false;
+            }
+            check(pending);
+        }
+        pending = executor.submit(() -> {
+            checkpoint.write(file);
+            return null;
+        });
+        return true;
+    }
+
+    /**
+     * Wait for the write in progress, if any, to finish.
+     *
+     * @throws IOException If the last checkpoint could not be written.
+     */
+    void await() throws IOException {
+        if (pending != null) {
+            check(pending);
+        }
+    }
+
+    /**
+     * Wait for the write in progress, if any, then stop the writer.
+     *
+     * @throws IOException If the last checkpoint could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            await();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void check(Future<?> write) throws IOException {
+        try {
+            write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
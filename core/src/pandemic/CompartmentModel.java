@@ -0,0 +1,166 @@
+package pandemic;
+
+import java.util.Random;
+
+/**
+ * A compartment model: for each pair (state, event), the probabilities of
+ * moving to each of the other states when the event may happen. Models are
+ * defined with a Builder and compiled into flat arrays indexed by ordinals,
+ * holding the cumulative probabilities of the outcomes of each pair, so that
+ * a transition is a table read and a comparison per possible outcome.
+ * Whatever probability is left over keeps the current state.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+final class CompartmentModel {
+    // Shared copies of the values, values() clones the array on each call.
+    private static final State[] STATES = State.values();
+    private static final int EVENTS = Event.values().length;
+
+    // The outcomes of the pair (state, event) are found from index
+    // ruleStart[state * EVENTS + event] up to the start of the next pair.
+    private final int[] ruleStart;
+    // The ordinal of each outcome.
+    private final byte[] outcomes;
+    // The probability of each outcome or of any outcome before it.
+    private final double[] thresholds;
+
+    private CompartmentModel(int[] ruleStart, byte[] outcomes, double[] thresholds) {
+        this.ruleStart = ruleStart;
+        this.outcomes = outcomes;
+        this.thresholds = thresholds;
+    }
+
+    /**
+     * Build the usual model of the simulation from the given probabilities.
+     * A healthy person in contact with the disease gets infected with the
+     * infection rate. Once the disease has run for long enough, it ends at
+     * each step with the infection duration probability: the
+     * INFECTION_DURATION event then moves the person out of INFECTED. The
+     * MORTALITY_RATE event decides how it ends, in death with the mortality
+     * rate, in recovery otherwise.
+     *
+     * @param infectionRate     The probability of catching the disease.
+     * @param infectionDuration The probability of the disease ending at each
+     *                          step.
+     * @param mortalityRate     The probability of an ending disease being
+     *                          fatal.
+     * @return The compiled model.
+     */
+    static CompartmentModel of(double infectionRate, double infectionDuration,
+                               double mortalityRate) {
+        return new Builder()
+            // (HEALTHY, CONTACT) -> HEALTHY | INFECTED
+            .add(State.HEALTHY, Event.INFECTION_RATE, State.INFECTED, infectionRate)
+            // (INFECTED, TIMEOUT) -> RECOVERED | DEAD
+            .add(State.INFECTED, Event.MORTALITY_RATE, State.DEAD, mortalityRate)
+            .add(State.INFECTED, Event.MORTALITY_RATE, State.RECOVERED, 1 - mortalityRate)
+            // (INFECTED, DURATION) -> INFECTED | RECOVERED
+            .add(State.INFECTED, Event.INFECTION_DURATION, State.RECOVERED, infectionDuration)
+            .build();
+    }
+
+    /**
+     * Determines the next state from the current state and a random event.
+     * No random value is drawn if the event cannot change the state.
+     *
+     * @param state The current state.
+     * @param event The event which may have happened.
+     * @param rand  The random generator deciding the outcome.
+     * @return The next state.
+     */
+    State nextState(State state, Event event, Random rand) {
+        int rule = state.ordinal() * EVENTS + event.ordinal();
+        int from = ruleStart[rule];
+        int to = ruleStart[rule + 1];
+        if (from == to) {
+            return state;
+        }
+        double chance = rand.nextDouble();
+        for (int k = from; k < to; k++) {
+            if (chance < thresholds[k]) {
+                return STATES[outcomes[k]];
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Tell whether a state is final: no event can change it.
+     *
+     * @param state The state.
+     * @return Whether the state has no possible outcome.
+     */
+    boolean isAbsorbing(State state) {
+        return ruleStart[state.ordinal() * EVENTS] == ruleStart[(state.ordinal() + 1) * EVENTS];
+    }
+
+    /**
+     * Defines a model one possible outcome at a time.
+     */
+    static class Builder {
+        // probabilities[state * EVENTS + event][outcome]
+        private final double[][] probabilities = new double[STATES.length * EVENTS][STATES.length];
+        // The outcomes of each pair, in the order they were first added.
+        private final byte[][] order = new byte[probabilities.length][STATES.length];
+        private final int[] added = new int[probabilities.length];
+
+        /**
+         * Add a possible outcome of an event. Adding the same outcome twice
+         * adds up the probabilities. The outcomes of an event are drawn in
+         * the order they were first added: the first one happens when the
+         * random value is below its probability, and so on.
+         *
+         * @param from        The current state.
+         * @param event       The event.
+         * @param to          The state after the event.
+         * @param probability The probability of that outcome.
+         * @return This builder.
+         */
+        Builder add(State from, Event event, State to, double probability) {
+            if (probability < 0 || probability > 1) {
+                throw new IllegalArgumentException("Probability of " + from + " -> " + to
+                    + " on " + event + " must be between 0 and 1: " + probability);
+            }
+            int rule = from.ordinal() * EVENTS + event.ordinal();
+            if (probability > 0 && probabilities[rule][to.ordinal()] == 0 && from != to) {
+                order[rule][added[rule]++] = (byte) to.ordinal();
+            }
+            probabilities[rule][to.ordinal()] += probability;
+            return this;
+        }
+
+        /**
+         * Compile the model.
+         *
+         * @return The compiled model.
+         */
+        CompartmentModel build() {
+            int[] ruleStart = new int[probabilities.length + 1];
+            int count = 0;
+            for (int rule = 0; rule < probabilities.length; rule++) {
+                ruleStart[rule] = count;
+                count += added[rule];
+            }
+            ruleStart[probabilities.length] = count;
+            byte[] outcomes = new byte[count];
+            double[] thresholds = new double[count];
+            int k = 0;
+            for (int rule = 0; rule < probabilities.length; rule++) {
+                double cumulated = 0;
+                for (int n = 0; n < added[rule]; n++) {
+                    int to = order[rule][n];
+                    cumulated += probabilities[rule][to];
+                    outcomes[k] = (byte) to;
+                    thresholds[k++] = cumulated;
+                }
+                if (cumulated > 1 + 1e-9) {
+                    throw new IllegalArgumentException("Outcomes of " + STATES[rule / EVENTS]
+                        + " on " + Event.values()[rule % EVENTS] + " add up to " + cumulated);
+                }
+            }
+            return new CompartmentModel(ruleStart, outcomes, thresholds);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package pandemic;
+
+import java.util.Arrays;
+
+/**
+ * The number of people in each state at every step of a run, kept in
+ * arrays of ints which grow as needed. A long history is shown by picking
+ * a given number of its points with the largest-triangle-three-buckets
+ * algorithm, which keeps the peaks and the shape of the curve.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class CountHistory {
+    // Shared copy of the states, values() clones the array on each call.
+    private static final State[] STATES = State.values();
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int size;
+    private int[] steps = new int[INITIAL_CAPACITY];
+    // The counts of each state, indexed by ordinal then by point.
+    private final int[][] counts = new int[STATES.length][INITIAL_CAPACITY];
+
+    /**
+     * Add the counts of a step.
+     *
+     * @param stats The counts.
+     */
+    void add(FieldStats stats) {
+        ensureCapacity(size + 1);
+        steps[size] = stats.getStep();
+        for (State state : STATES) {
+            counts[state.ordinal()][size] = stats.getPopulationCount(state);
+        }
+        size++;
+    }
+
+    /**
+     * Add the counts of every step of another history, after those kept.
+     *
+     * @param other The history to add.
+     */
+    void addAll(CountHistory other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.steps, 0, steps, size, other.size);
+        for (int state = 0; state < counts.length; state++) {
+            System.arraycopy(other.counts[state], 0, counts[state], size, other.size);
+        }
+        size += other.size;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > steps.length) {
+            int length = Math.max(capacity, steps.length * 2);
+            steps = Arrays.copyOf(steps, length);
+            for (int state = 0; state < counts.length; state++) {
+                counts[state] = Arrays.copyOf(counts[state], length);
+            }
+        }
+    }
+
+    /**
+     * Forget the first steps kept.
+     *
+     * @param count The number of steps to forget, at most size().
+     */
+    void removeFirst(int count) {
+        size -= count;
+        System.arraycopy(steps, count, steps, 0, size);
+        for (int state = 0; state < counts.length; state++) {
+            System.arraycopy(counts[state], count, counts[state], 0, size);
+        }
+    }
+
+    /**
+     * Forget every step.
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return The number of steps kept.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return The step of the given point.
+     */
+    int getStep(int point) {
+        return steps[point];
+    }
+
+    /**
+     * @return The number of people in the given state at the given point.
+     */
+    int getCount(State state, int point) {
+        return counts[state.ordinal()][point];
+    }
+
+    /**
+     * Pick the points which best show the curve of a state with a given
+     * number of them: the first and the last, and in each of the buckets the
+     * points in between are cut into, the one making the largest triangle
+     * with the point picked in the previous bucket and the average of the
+     * next bucket.
+     *
+     * @param state     The state.
+     * @param threshold The number of points to pick, at least 3.
+     * @param picked    Where to put the picked points, in order; as long as
+     *                  the threshold at least.
+     * @return The number of points picked, all of them if there are no more
+     * than the threshold.
+     */
+    int downsample(State state, int threshold, int[] picked) {
+        if (threshold < 3 || size <= threshold) {
+            for (int point = 0; point < size; point++) {
+                picked[point] = point;
+            }
+            return size;
+        }
+        int[] y = counts[state.ordinal()];
+        double bucket = (double) (size - 2) / (threshold - 2);
+        int previous = 0;
+        picked[0] = 0;
+        for (int k = 0; k < threshold - 2; k++) {
+            int from = (int) (k * bucket) + 1;
+            int to = (int) ((k + 1) * bucket) + 1;
+            int nextTo = Math.min((int) ((k + 2) * bucket) + 1, size);
+            double averageX = 0;
+            double averageY = 0;
+            for (int point = to; point < nextTo; point++) {
+                averageX += steps[point];
+                averageY += y[point];
+            }
+            averageX /= nextTo - to;
+            averageY /= nextTo - to;
+            double largest = -1;
+            int chosen = from;
+            for (int point = from; point < to; point++) {
+                double area = Math.abs((steps[previous] - averageX) * (y[point] - y[previous])
+                    - (steps[previous] - steps[point]) * (averageY - y[previous]));
+                if (area > largest) {
+                    largest = area;
+                    chosen = point;
+                }
+            }
+            picked[k + 1] = chosen;
+            previous = chosen;
+        }
+        picked[threshold - 1] = size - 1;
+        return threshold;
+    }
+}
@@ -0,0 +1,235 @@
+package pandemic;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Publishes a simulation through JMX, so that a run without any window can
+ * be watched and steered from JConsole or VisualVM. The monitor is a view of
+ * the simulation, which gives it the counts of every step, and it holds the
+ * gate the loop running the steps goes through: awaitTurn() blocks while
+ * the run is paused, but for the steps asked for one at a time. Parameter
+ * changes are handed to the simulator, which applies them at the next step
+ * boundary.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class EngineMonitor implements SimulatorView, EngineMonitorMBean {
+    // The shortest time rates are measured over, in nanoseconds.
+    private static final long RATE_WINDOW = 1_000_000_000L;
+
+    private Simulator simulator;
+    // The name the monitor is registered under, or null.
+    private ObjectName name;
+    // What the last step left.
+    private volatile FieldStats stats = new FieldStats(0, new int[State.values().length]);
+    private volatile double nanosPerAgentStep;
+    // Whether the run is paused, and the steps asked for meanwhile.
+    private boolean paused;
+    private int singleSteps;
+    // The last measures of the rates, and when they were taken.
+    private long stepsSampleTime = System.nanoTime();
+    private int stepsSample;
+    private double stepsPerSecond;
+    private long allocationSampleTime = System.nanoTime();
+    private long allocationSample = allocatedBytes();
+    private double allocationRate;
+
+    /**
+     * @param simulator The simulation to monitor.
+     */
+    void setSimulator(Simulator simulator) {
+        this.simulator = simulator;
+    }
+
+    /**
+     * Register the monitor with the platform MBean server.
+     *
+     * @param id What tells this simulation from the others of the JVM.
+     * @throws JMException If the monitor cannot be registered.
+     */
+    void register(String id) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        name = new ObjectName("pandemic:type=Engine,name=" + ObjectName.quote(id));
+        server.registerMBean(this, name);
+    }
+
+    /**
+     * Remove the monitor from the platform MBean server, if registered.
+     *
+     * @throws JMException If the monitor cannot be removed.
+     */
+    void unregister() throws JMException {
+        if (name != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            name = null;
+        }
+    }
+
+    /**
+     * Wait until the next step may run. Called by the loop running the
+     * steps, before each of them.
+     *
+     * @throws InterruptedException If the thread is interrupted while the run
+     *                              is paused.
+     */
+    synchronized void awaitTurn() throws InterruptedException {
+        while (paused && singleSteps == 0) {
+            wait();
+        }
+        if (paused) {
+            singleSteps--;
+        }
+    }
+
+    @Override
+    public boolean isViable(FieldStats stats) {
+        return stats.isViable();
+    }
+
+    @Override
+    public void showStatus(int step, Field field, FieldStats stats) {
+        if (simulator != null && step > 0) {
+            int people = simulator.getLastStepPeople();
+            nanosPerAgentStep = people == 0 ? 0 : (double) simulator.getLastStepNanos() / people;
+        }
+        this.stats = stats;
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public int getStep() {
+        return stats.getStep();
+    }
+
+    @Override
+    public synchronized double getStepsPerSecond() {
+        long now = System.nanoTime();
+        if (now - stepsSampleTime >= RATE_WINDOW) {
+            int step = stats.getStep();
+            stepsPerSecond = Math.max(0, step - stepsSample) * 1e9 / (now - stepsSampleTime);
+            stepsSample = step;
+            stepsSampleTime = now;
+        }
+        return stepsPerSecond;
+    }
+
+    @Override
+    public double getNanosPerAgentStep() {
+        return nanosPerAgentStep;
+    }
+
+    @Override
+    public int getHealthy() {
+        return stats.getPopulationCount(State.HEALTHY);
+    }
+
+    @Override
+    public int getInfected() {
+        return stats.getPopulationCount(State.INFECTED);
+    }
+
+    @Override
+    public int getRecovered() {
+        return stats.getPopulationCount(State.RECOVERED);
+    }
+
+    @Override
+    public int getDead() {
+        return stats.getPopulationCount(State.DEAD);
+    }
+
+    @Override
+    public synchronized double getAllocationRate() {
+        long now = System.nanoTime();
+        if (now - allocationSampleTime >= RATE_WINDOW) {
+            long bytes = allocatedBytes();
+            allocationRate = Math.max(0, bytes - allocationSample) * 1e9 / (now - allocationSampleTime);
+            allocationSample = bytes;
+            allocationSampleTime = now;
+        }
+        return allocationRate;
+    }
+
+    /**
+     * @return The bytes allocated so far by the live threads, or 0 if the
+     * JVM does not tell.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+        com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+        if (!counter.isThreadAllocatedMemorySupported() || !counter.isThreadAllocatedMemoryEnabled()) {
+            return 0;
+        }
+        long total = 0;
+        for (long bytes : counter.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String getParameters() {
+        return simulator == null ? "" : simulator.getParameters().toString();
+    }
+
+    @Override
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    @Override
+    public synchronized void pause() {
+        paused = true;
+    }
+
+    @Override
+    public synchronized void resume() {
+        paused = false;
+        singleSteps = 0;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void singleStep() {
+        if (paused) {
+            singleSteps++;
+            notifyAll();
+        }
+    }
+
+    @Override
+    public synchronized void setProbabilities(double infectionRate, double infectionDuration,
+                                              double mortalityRate) {
+        SimulationParameters current = simulator.getParameters();
+        simulator.setParameters(new SimulationParameters(
+            current.getHealthyCreationProbability(), current.getInfectedCreationProbability(),
+            infectionRate, infectionDuration, mortalityRate, current.getMaxContamination()));
+    }
+
+    @Override
+    public synchronized void setMaxContamination(int maxContamination) {
+        SimulationParameters current = simulator.getParameters();
+        simulator.setParameters(new SimulationParameters(
+            current.getHealthyCreationProbability(), current.getInfectedCreationProbability(),
+            current.getInfectionRate(), current.getInfectionDuration(),
+            current.getMortalityRate(), maxContamination));
+    }
+}
@@ -0,0 +1,75 @@
+package pandemic;
+
+/**
+ * The management interface of a running simulation, as seen from JConsole
+ * or VisualVM. Rates are measured between two reads of the same attribute,
+ * at least a second apart.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+public interface EngineMonitorMBean {
+    int getStep();
+
+    double getStepsPerSecond();
+
+    /**
+     * @return The time the last step took per person it went through.
+     */
+    double getNanosPerAgentStep();
+
+    int getHealthy();
+
+    int getInfected();
+
+    int getRecovered();
+
+    int getDead();
+
+    /**
+     * @return The bytes allocated per second by all the threads.
+     */
+    double getAllocationRate();
+
+    /**
+     * @return The parameters the next step will use.
+     */
+    String getParameters();
+
+    boolean isPaused();
+
+    /**
+     * Stop at the next step boundary.
+     */
+    void pause();
+
+    /**
+     * Carry on after a pause.
+     */
+    void resume();
+
+    /**
+     * Run one more step while paused.
+     */
+    void singleStep();
+
+    /**
+     * Change the probabilities of the events from the next step on.
+     *
+     * @param infectionRate     The probability of catching the disease from
+     *                          an infected neighbour.
+     * @param infectionDuration The probability of the disease ending at each
+     *                          step.
+     * @param mortalityRate     The probability of an ending disease being
+     *                          fatal.
+     */
+    void setProbabilities(double infectionRate, double infectionDuration, double mortalityRate);
+
+    /**
+     * Change the number of steps the disease lasts at least, from the next
+     * step on.
+     *
+     * @param maxContamination The number of steps.
+     */
+    void setMaxContamination(int maxContamination);
+}
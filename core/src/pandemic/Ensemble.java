@@ -0,0 +1,160 @@
+package pandemic;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs many replicates of the same scenario, each from its own seed derived
+ * from the seed of the ensemble, and aggregates their counts step by step.
+ * The replicates are spread over a fork/join pool, whose idle threads steal
+ * the pending ones. Every thread keeps one simulator of its own, which is
+ * reset for each replicate it runs, and adds the counts to statistics of its
+ * own, merged once all the replicates are done; no run is kept in memory.
+ * Each replicate runs sequentially: the parallelism is across replicates.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class Ensemble {
+    private final int steps;
+    private final SimulationParameters parameters;
+    // Whether the states are updated synchronously.
+    private boolean synchronous;
+    // Whether the people move around.
+    private boolean moving = true;
+    // The simulator of each thread, kept from one ensemble to the next.
+    private final ThreadLocal<Simulator> simulators;
+
+    /**
+     * Prepare an ensemble.
+     *
+     * @param depth      Depth of the field.
+     * @param width      Width of the field.
+     * @param parameters The parameters of every replicate.
+     * @param steps      The number of steps of every replicate.
+     */
+    Ensemble(int depth, int width, SimulationParameters parameters, int steps) {
+        this.parameters = parameters;
+        this.steps = steps;
+        simulators = ThreadLocal.withInitial(() -> new Simulator(depth, width));
+    }
+
+    /**
+     * @param synchronous Whether the states are updated synchronously.
+     */
+    void setSynchronous(boolean synchronous) {
+        this.synchronous = synchronous;
+    }
+
+    /**
+     * @param moving Whether the people move around.
+     */
+    void setMoving(boolean moving) {
+        this.moving = moving;
+    }
+
+    /**
+     * Return the seed of a replicate. The seeds of an ensemble are spread
+     * over the whole range of longs even when the seeds of two ensembles
+     * are close to each other.
+     *
+     * @param seed      The seed of the ensemble.
+     * @param replicate The number of the replicate.
+     * @return The seed of the replicate.
+     */
+    static long seedOf(long seed, int replicate) {
+        return new AgentRandom().reset(seed, 0, replicate, AgentRandom.REPLICATE).nextLong();
+    }
+
+    /**
+     * Run the replicates 0 to replicates - 1.
+     *
+     * @param replicates The number of replicates.
+     * @param seed       The seed of the ensemble.
+     * @param pool       The pool to run them on.
+     * @return The counts of all the replicates.
+     */
+    EnsembleStats run(int replicates, long seed, ForkJoinPool pool) {
+        Queue<EnsembleStats> partials = new ConcurrentLinkedQueue<>();
+        ThreadLocal<EnsembleStats> partial = ThreadLocal.withInitial(() -> {
+            EnsembleStats stats = new EnsembleStats(steps);
+            partials.add(stats);
+            return stats;
+        });
+        pool.invoke(new ReplicateTask(0, replicates, seed, partial));
+        EnsembleStats total = new EnsembleStats(steps);
+        partials.forEach(total::merge);
+        return total;
+    }
+
+    /**
+     * Run one replicate on the simulator of the calling thread.
+     *
+     * @param seed  The seed of the replicate.
+     * @param stats Where to add the counts of every step.
+     */
+    private void runReplicate(long seed, EnsembleStats stats) {
+        Simulator simulator = prepare(simulators.get(), seed);
+        FieldStats counts = simulator.getStats();
+        stats.add(counts);
+        for (int step = 1; step <= steps; step++) {
+            if (counts.getPopulationCount(State.INFECTED) > 0) {
+                simulator.simulateOneStep();
+                counts = simulator.getStats();
+            } else {
+                // without the disease nobody changes state any more
+                counts = new FieldStats(step, counts);
+            }
+            stats.add(counts);
+        }
+        stats.endRun();
+    }
+
+    /**
+     * Set up a simulator for a new replicate.
+     *
+     * @param simulator The simulator.
+     * @param seed      The seed of the replicate.
+     * @return The simulator, reset to the start of the replicate.
+     */
+    private Simulator prepare(Simulator simulator, long seed) {
+        simulator.setParameters(parameters);
+        simulator.setSynchronous(synchronous);
+        simulator.setMoving(moving);
+        simulator.setSeed(seed);
+        simulator.reset();
+        return simulator;
+    }
+
+    /**
+     * Runs a range of replicates, splitting it in halves until a single
+     * replicate is left.
+     */
+    private class ReplicateTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final long seed;
+        // The statistics of the running thread.
+        private final ThreadLocal<EnsembleStats> partial;
+
+        ReplicateTask(int from, int to, long seed, ThreadLocal<EnsembleStats> partial) {
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+            this.partial = partial;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ReplicateTask(from, middle, seed, partial),
+                    new ReplicateTask(middle, to, seed, partial));
+            } else if (to > from) {
+                runReplicate(seedOf(seed, from), partial.get());
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package pandemic;
+
+import java.util.Arrays;
+
+/**
+ * The number of people in each state at each step, aggregated over the runs
+ * of an ensemble: mean, variance, minimum and maximum. Only sums are kept,
+ * not the runs themselves. The sums are exact integers, so partial results
+ * can be merged in any order and the figures do not depend on which thread
+ * ran which replicate.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class EnsembleStats {
+    // Shared copy of the states, values() clones the array on each call.
+    private static final State[] STATES = State.values();
+
+    // The number of steps, the initial state being step 0.
+    private final int steps;
+    // The number of runs added.
+    private int replicates;
+    // Indexed by step * STATES.length + ordinal.
+    private final long[] sums;
+    private final long[] sumsOfSquares;
+    private final int[] minima;
+    private final int[] maxima;
+
+    /**
+     * Create empty statistics.
+     *
+     * @param steps The number of steps of each run.
+     */
+    EnsembleStats(int steps) {
+        this.steps = steps;
+        int size = (steps + 1) * STATES.length;
+        sums = new long[size];
+        sumsOfSquares = new long[size];
+        minima = new int[size];
+        maxima = new int[size];
+        Arrays.fill(minima, Integer.MAX_VALUE);
+        Arrays.fill(maxima, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Add the counts of one step of a run.
+     *
+     * @param stats The counts, whose step says where they go.
+     */
+    void add(FieldStats stats) {
+        int base = stats.getStep() * STATES.length;
+        for (int state = 0; state < STATES.length; state++) {
+            long count = stats.getPopulationCount(STATES[state]);
+            sums[base + state] += count;
+            sumsOfSquares[base + state] += count * count;
+            minima[base + state] = (int) Math.min(minima[base + state], count);
+            maxima[base + state] = (int) Math.max(maxima[base + state], count);
+        }
+    }
+
+    /**
+     * Count one more run. Called once all its steps have been added.
+     */
+    void endRun() {
+        replicates++;
+    }
+
+    /**
+     * Add the runs of other statistics of the same length to these ones.
+     *
+     * @param other The statistics to add.
+     */
+    void merge(EnsembleStats other) {
+        if (other.steps != steps) {
+            throw new IllegalArgumentException("Cannot merge runs of " + other.steps
+                + " steps into runs of " + steps + " steps");
+        }
+        for (int k = 0; k < sums.length; k++) {
+            sums[k] += other.sums[k];
+            sumsOfSquares[k] += other.sumsOfSquares[k];
+            minima[k] = Math.min(minima[k], other.minima[k]);
+            maxima[k] = Math.max(maxima[k], other.maxima[k]);
+        }
+        replicates += other.replicates;
+    }
+
+    /**
+     * @return The number of steps of each run.
+     */
+    int getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return The number of runs.
+     */
+    int getReplicates() {
+        return replicates;
+    }
+
+    /**
+     * @return The mean number of people in the given state at the given step.
+     */
+    double getMean(int step, State state) {
+        return (double) sums[step * STATES.length + state.ordinal()] / replicates;
+    }
+
+    /**
+     * @return The sample variance of the number of people in the given state
+     * at the given step, 0 for a single run.
+     */
+    double getVariance(int step, State state) {
+        if (replicates < 2) {
+            return 0;
+        }
+        int k = step * STATES.length + state.ordinal();
+        double mean = (double) sums[k] / replicates;
+        return Math.max(0, (sumsOfSquares[k] - mean * sums[k]) / (replicates - 1));
+    }
+
+    /**
+     * @return The least number of people in the given state at the given step.
+     */
+    int getMin(int step, State state) {
+        return minima[step * STATES.length + state.ordinal()];
+    }
+
+    /**
+     * @return The largest number of people in the given state at the given
+     * step.
+     */
+    int getMax(int step, State state) {
+        return maxima[step * STATES.length + state.ordinal()];
+    }
+}
@@ -12,10 +12,9 @@ enum Event {
     INFECTION_RATE(0.33),
     MORTALITY_RATE(0.1),
     INFECTION_DURATION(0.4);
-    // yes, this should normally be private - it's package-private
-    //  because I'm too lazy to write a getter and a setter  :-(
-    // and I trust my group members  :-)
-    double probability;
+    // the default probability, package-private and final:
+    //  a run reads its probabilities from its SimulationParameters
+    final double probability;
     // the constructor to initialize the event identifiers
     // note that the constructor is private by default,
     //  and can only be private
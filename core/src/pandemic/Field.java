@@ -0,0 +1,694 @@
+package pandemic;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Represent a rectangular grid of field positions. Each position is able to
+ * store a single people.
+ * The grid is a flat array of occupancy words, one per cell, surrounded by a
+ * border of sentinel cells so that looking at a neighbour never needs a
+ * bounds check. A cell is addressed by its index in that array.
+ * The field is also cut into square chunks of CHUNK_SIZE cells a side (the
+ * last row and column of chunks take the leftover cells), which count their
+ * infected people. A chunk is awake when there is an infected people in it
+ * or in one of the chunks around it; elsewhere nobody can catch the disease.
+ * When logging, the field also lists the cells which change, so that the
+ * views can be told which cells changed from one step to the next.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2021.04.07
+ */
+class Field {
+    // An occupancy word holds the people's index in the population in its
+    // upper bits and a state tag (the state's ordinal + 1) in its STATE_BITS
+    // lower bits.
+    static final int STATE_BITS = 3;
+    static final int STATE_MASK = (1 << STATE_BITS) - 1;
+    // The word of a free cell.
+    static final int EMPTY = 0;
+    // The word of a sentinel cell, its state tag is STATE_MASK.
+    static final int BORDER = -1;
+    // Shared copy of the states, values() clones the array on each call.
+    private static final State[] STATES = State.values();
+    // The number of neighbours of a cell.
+    static final int NEIGHBOURS = 8;
+    // Every ordering of the neighbours of a cell, NEIGHBOURS entries each.
+    // Visiting the neighbours in a randomly picked ordering and skipping the
+    // sentinels is the same as shuffling the neighbours within the grid.
+    private static final byte[] ORDERINGS = orderings(NEIGHBOURS);
+    private static final int ORDERING_COUNT = ORDERINGS.length / NEIGHBOURS;
+    // A random number generator for providing random locations.
+    private static final Random rand = Randomizer.getRandom();
+    // The side of a chunk, a power of two.
+    static final int CHUNK_SIZE = 16;
+    private static final int CHUNK_SHIFT = Integer.numberOfTrailingZeros(CHUNK_SIZE);
+    private static final int INFECTED_TAG = State.INFECTED.ordinal() + 1;
+
+    // The depth and width of the field.
+    private final int depth;
+    private final int width;
+    // The distance between two vertically adjacent cells.
+    private final int stride;
+    // The offsets from a cell to each of its neighbours.
+    private final int[] offsets;
+    // Storage for the occupancy words.
+    private final int[] grid;
+    // The people placed on this field.
+    private Population population;
+    // One shared location per cell, built on first use.
+    private volatile Location[] locations;
+    // The number of rows and columns of chunks.
+    private final int chunkRows;
+    private final int chunkCols;
+    // The number of infected people in each chunk. People of different
+    // bands may update the same chunk concurrently, hence the atomics.
+    private final AtomicIntegerArray infectedPerChunk;
+    // Whether each chunk is awake, and whether chunks are put to sleep.
+    private final boolean[] awake;
+    private boolean sleeping = true;
+    // When logging, whether each cell changed since the last change log,
+    // the cells which did, and whether the whole field may have changed.
+    // Cells of different bands may change concurrently, but never the same
+    // cell, hence the atomic count alone.
+    private boolean[] changed;
+    private int[] changedCells;
+    private final AtomicInteger changedCount = new AtomicInteger();
+    private boolean changedAll;
+    // The number of change logs made, and the last one.
+    private long serial;
+    private ChangeLog changes;
+
+    /**
+     * Represent a field of the given dimensions.
+     *
+     * @param depth The depth of the field.
+     * @param width The width of the field.
+     */
+    Field(int depth, int width) {
+        this.depth = depth;
+        this.width = width;
+        stride = width + 2;
+        offsets = new int[] {
+            -stride - 1, -stride, -stride + 1,
+            -1, 1,
+            stride - 1, stride, stride + 1
+        };
+        grid = new int[(depth + 2) * stride];
+        chunkRows = Math.max(1, depth / CHUNK_SIZE);
+        chunkCols = Math.max(1, width / CHUNK_SIZE);
+        infectedPerChunk = new AtomicIntegerArray(chunkRows * chunkCols);
+        awake = new boolean[chunkRows * chunkCols];
+        Arrays.fill(grid, BORDER);
+        clear();
+    }
+
+    /**
+     * Set the population whose people are placed on this field.
+     *
+     * @param population The population.
+     */
+    void setPopulation(Population population) {
+        this.population = population;
+    }
+
+    /**
+     * Empty the field.
+     */
+    void clear() {
+        for (int row = 0; row < depth; row++) {
+            int start = cell(row, 0);
+            Arrays.fill(grid, start, start + width, EMPTY);
+        }
+        for (int chunk = 0; chunk < awake.length; chunk++) {
+            infectedPerChunk.set(chunk, 0);
+            awake[chunk] = false;
+        }
+        changedAll = true;
+    }
+
+    /**
+     * Turn the logging of the changed cells on or off.
+     *
+     * @param logging Whether to log the changed cells.
+     */
+    void setLogging(boolean logging) {
+        if (logging && changed == null) {
+            changed = new boolean[grid.length];
+            changedCells = new int[depth * width];
+            changedCount.set(0);
+            changedAll = true;
+        } else if (!logging) {
+            changed = null;
+            changedCells = null;
+        }
+    }
+
+    /**
+     * @return Whether the changed cells are logged.
+     */
+    boolean isLogging() {
+        return changed != null;
+    }
+
+    private void logChange(int cell) {
+        if (!changed[cell]) {
+            changed[cell] = true;
+            changedCells[changedCount.getAndIncrement()] = cell;
+        }
+    }
+
+    /**
+     * Make the log of the cells changed since the last log, and start the
+     * next one. Only to be called between steps, when logging.
+     *
+     * @param step The current step.
+     * @return The log, also given by getChanges() from now on.
+     */
+    ChangeLog collectChanges(int step) {
+        int count = changedCount.getAndSet(0);
+        int[] locations = new int[changedAll ? 0 : count];
+        byte[] tags = new byte[locations.length];
+        for (int k = 0; k < count; k++) {
+            int cell = changedCells[k];
+            changed[cell] = false;
+            if (!changedAll) {
+                locations[k] = rowOf(cell) * width + colOf(cell);
+                tags[k] = (byte) (grid[cell] & STATE_MASK);
+            }
+        }
+        changes = new ChangeLog(step, ++serial, changedAll, locations.length, locations, tags);
+        changedAll = false;
+        return changes;
+    }
+
+    /**
+     * @return The log of the cells which changed during the last step, null
+     * if not logging.
+     */
+    ChangeLog getChanges() {
+        return changes;
+    }
+
+    /**
+     * Make this field a copy of another of the same size: the same people in
+     * the same states, and the same chunks awake. The people stay those of
+     * the other field's population, which this field does not know of.
+     * The last change log is that of the other field.
+     *
+     * @param other The field to copy.
+     */
+    void copyFrom(Field other) {
+        System.arraycopy(other.grid, 0, grid, 0, grid.length);
+        for (int chunk = 0; chunk < awake.length; chunk++) {
+            infectedPerChunk.set(chunk, other.infectedPerChunk.get(chunk));
+        }
+        System.arraycopy(other.awake, 0, awake, 0, awake.length);
+        changes = other.changes;
+        changedAll = true;
+    }
+
+    /**
+     * Clear the given location.
+     *
+     * @param location The location to clear.
+     */
+    void clear(Location location) {
+        clearCell(cell(location.getRow(), location.getCol()));
+    }
+
+    /**
+     * Clear the given cell.
+     *
+     * @param cell The cell to clear.
+     */
+    void clearCell(int cell) {
+        countInfected(cell, grid[cell], -1);
+        grid[cell] = EMPTY;
+        if (changed != null) {
+            logChange(cell);
+        }
+    }
+
+    /**
+     * Place a people at the given location. If there is already another people at
+     * the location it will be lost.
+     *
+     * @param human The animal to be placed.
+     * @param row    Row coordinate of the location.
+     * @param col    Column coordinate of the location.
+     */
+    void place(Human human, int row, int col) {
+        place(human.getIndex(), human.getStatus(), cell(row, col));
+    }
+
+    /**
+     * Place an animal at the given location. If there is already an animal at
+     * the location it will be lost.
+     *
+     * @param human   The animal to be placed.
+     * @param location Where to place the animal.
+     */
+    void place(Human human, Location location) {
+        place(human, location.getRow(), location.getCol());
+    }
+
+    /**
+     * Place a people at the given cell. If there is already another people at
+     * the cell it will be lost.
+     *
+     * @param index The people's index in the population.
+     * @param state The people's state.
+     * @param cell  Where to place the people.
+     */
+    void place(int index, State state, int cell) {
+        countInfected(cell, grid[cell], -1);
+        grid[cell] = index << STATE_BITS | state.ordinal() + 1;
+        countInfected(cell, grid[cell], 1);
+        if (changed != null) {
+            logChange(cell);
+        }
+    }
+
+    /**
+     * Update the state tag of the people at the given cell.
+     *
+     * @param cell  An occupied cell.
+     * @param state The people's new state.
+     */
+    void setState(int cell, State state) {
+        countInfected(cell, grid[cell], -1);
+        grid[cell] = grid[cell] & ~STATE_MASK | state.ordinal() + 1;
+        countInfected(cell, grid[cell], 1);
+        if (changed != null) {
+            logChange(cell);
+        }
+    }
+
+    /**
+     * Keep the count of infected people of the chunk of a cell up to date.
+     * An infected people arriving wakes the chunks around, so that a chunk
+     * put to sleep at the start of a step wakes up as soon as somebody in it
+     * may catch the disease.
+     *
+     * @param cell  The cell.
+     * @param word  The word of the cell.
+     * @param delta What to add to the count if the word is an infected one.
+     */
+    private void countInfected(int cell, int word, int delta) {
+        if ((word & STATE_MASK) == INFECTED_TAG) {
+            int chunk = chunkOf(cell);
+            infectedPerChunk.addAndGet(chunk, delta);
+            if (delta > 0) {
+                wakeAround(chunk);
+            }
+        }
+    }
+
+    /**
+     * @return The number of rows of chunks.
+     */
+    int getChunkRows() {
+        return chunkRows;
+    }
+
+    /**
+     * @return The number of columns of chunks.
+     */
+    int getChunkCols() {
+        return chunkCols;
+    }
+
+    /**
+     * Return the chunk of the given cell. Chunks are numbered row by row.
+     *
+     * @param cell A cell within the grid area.
+     * @return The chunk of the cell.
+     */
+    int chunkOf(int cell) {
+        int chunkRow = Math.min(rowOf(cell) >> CHUNK_SHIFT, chunkRows - 1);
+        int chunkCol = Math.min(colOf(cell) >> CHUNK_SHIFT, chunkCols - 1);
+        return chunkRow * chunkCols + chunkCol;
+    }
+
+    /**
+     * Turn the sleeping of the chunks on or off. Without it every chunk
+     * stays awake, which gives the same steps, only slower.
+     *
+     * @param sleeping Whether chunks without the disease around are put to
+     *                 sleep.
+     */
+    void setSleeping(boolean sleeping) {
+        this.sleeping = sleeping;
+    }
+
+    /**
+     * Put the chunks to sleep, but those with infected people in or around
+     * them. Called at the start of each step.
+     */
+    void wakeChunks() {
+        Arrays.fill(awake, !sleeping);
+        if (!sleeping) {
+            return;
+        }
+        for (int chunk = 0; chunk < awake.length; chunk++) {
+            if (infectedPerChunk.get(chunk) > 0) {
+                wakeAround(chunk);
+            }
+        }
+    }
+
+    private void wakeAround(int chunk) {
+        int chunkRow = chunk / chunkCols;
+        int chunkCol = chunk % chunkCols;
+        for (int r = Math.max(0, chunkRow - 1); r <= Math.min(chunkRows - 1, chunkRow + 1); r++) {
+            for (int c = Math.max(0, chunkCol - 1); c <= Math.min(chunkCols - 1, chunkCol + 1); c++) {
+                awake[r * chunkCols + c] = true;
+            }
+        }
+    }
+
+    /**
+     * @return Whether the given chunk is awake.
+     */
+    boolean isChunkAwake(int chunk) {
+        return awake[chunk];
+    }
+
+    /**
+     * Tell whether anybody at the given cell may catch the disease. Since
+     * chunks are larger than a move, this stays true for all the cells
+     * adjacent to the given one.
+     *
+     * @param cell A cell within the grid area.
+     * @return Whether the chunk of the cell is awake.
+     */
+    boolean isAwake(int cell) {
+        return awake[chunkOf(cell)];
+    }
+
+    /**
+     * Return the occupancy word of the given cell.
+     *
+     * @param cell The cell, which may be a sentinel.
+     * @return EMPTY, BORDER or the word of the people on the cell.
+     */
+    int getWord(int cell) {
+        return grid[cell];
+    }
+
+    /**
+     * Return the state of the people at the given location, if any.
+     *
+     * @param row The desired row.
+     * @param col The desired column.
+     * @return The state of the people, or null if the location is free.
+     */
+    State getStateAt(int row, int col) {
+        return stateOf(grid[cell(row, col)]);
+    }
+
+    /**
+     * Decode the state tag of an occupancy word.
+     *
+     * @param word An occupancy word.
+     * @return The state of the people, or null for a free or sentinel cell.
+     */
+    static State stateOf(int word) {
+        int tag = word & STATE_MASK;
+        return tag == EMPTY || tag == STATE_MASK ? null : STATES[tag - 1];
+    }
+
+    /**
+     * Return the animal at the given location, if any.
+     *
+     * @param location Where in the field.
+     * @return The animal at the given location, or null if there is none.
+     */
+    Human getPeopleAt(Location location) {
+        return getPeopleAt(location.getRow(), location.getCol());
+    }
+
+    /**
+     * Return the people at the given location, if any.
+     *
+     * @param row The desired row.
+     * @param col The desired column.
+     * @return The animal at the given location, or null if there is none.
+     */
+    Human getPeopleAt(int row, int col) {
+        int word = grid[cell(row, col)];
+        return word == EMPTY ? null : population.get(word >>> STATE_BITS);
+    }
+
+    /**
+     * Generate a random location that is adjacent to the given location, or is
+     * the same location. The returned location will be within the valid bounds
+     * of the field.
+     *
+     * @param location The location from which to generate an adjacency.
+     * @return A valid location within the grid area.
+     */
+    Location randomAdjacentLocation(Location location) {
+        List<Location> adjacent = adjacentLocations(location);
+        return adjacent.get(0);
+    }
+
+    /**
+     * Get a shuffled list of the free adjacent locations.
+     *
+     * @param location Get locations adjacent to this.
+     * @return A list of free adjacent locations.
+     */
+    List<Location> getFreeAdjacentLocations(Location location) {
+        List<Location> free = new LinkedList<>();
+        List<Location> adjacent = adjacentLocations(location);
+        for (Location next : adjacent) {
+            if (grid[cell(next.getRow(), next.getCol())] == EMPTY) {
+                free.add(next);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Try to find a free location that is adjacent to the given location. If
+     * there is none, return null. The returned location will be within the
+     * valid bounds of the field.
+     *
+     * @param location The location from which to generate an adjacency.
+     * @return A valid location within the grid area.
+     */
+    Location freeAdjacentLocation(Location location) {
+        int free = freeAdjacentCell(cell(location.getRow(), location.getCol()));
+        return free >= 0 ? locationOf(free) : null;
+    }
+
+    /**
+     * Return a shuffled list of locations adjacent to the given one. The list
+     * will not include the location itself. All locations will lie within the
+     * grid.
+     *
+     * @param location The location from which to generate adjacencies.
+     * @return A list of locations adjacent to that given.
+     */
+    List<Location> adjacentLocations(Location location) {
+        assert location != null : "Null location passed to adjacentLocations";
+        // The list of locations to be returned.
+        List<Location> locations = new LinkedList<>();
+        if (location != null) {
+            int[] neighbours = new int[NEIGHBOURS];
+            int count = adjacentCells(cell(location.getRow(), location.getCol()), neighbours);
+            for (int i = 0; i < count; i++) {
+                locations.add(locationOf(neighbours[i]));
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * Write the cells adjacent to the given one, in a random order, into the
+     * given buffer. The cell itself and the sentinels are left out. Nothing
+     * is allocated, so callers can reuse one buffer for every query.
+     *
+     * @param cell       The cell from which to generate adjacencies.
+     * @param neighbours A buffer of at least NEIGHBOURS entries.
+     * @return The number of adjacent cells written to the buffer.
+     */
+    int adjacentCells(int cell, int[] neighbours) {
+        return adjacentCells(cell, neighbours, rand);
+    }
+
+    /**
+     * Same as adjacentCells(cell, neighbours), drawing the order from the
+     * given random generator.
+     */
+    int adjacentCells(int cell, int[] neighbours, Random rand) {
+        int ordering = rand.nextInt(ORDERING_COUNT) * NEIGHBOURS;
+        int count = 0;
+        for (int i = 0; i < NEIGHBOURS; i++) {
+            int next = cell + offsets[ORDERINGS[ordering + i]];
+            if (grid[next] != BORDER) {
+                neighbours[count++] = next;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Try to find a free cell that is adjacent to the given cell, picked at
+     * random among the free ones.
+     *
+     * @param cell The cell from which to generate an adjacency.
+     * @return A free adjacent cell, or -1 if there is none.
+     */
+    int freeAdjacentCell(int cell) {
+        return freeAdjacentCell(cell, rand);
+    }
+
+    /**
+     * Same as freeAdjacentCell(cell), drawing the free cell from the given
+     * random generator.
+     */
+    int freeAdjacentCell(int cell, Random rand) {
+        int ordering = rand.nextInt(ORDERING_COUNT) * NEIGHBOURS;
+        for (int i = 0; i < NEIGHBOURS; i++) {
+            int next = cell + offsets[ORDERINGS[ordering + i]];
+            if (grid[next] == EMPTY) {
+                return next;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Count the people in the given state around the given cell. The order
+     * in which neighbours are visited does not matter here, so there is no
+     * shuffling at all.
+     *
+     * @param cell  The cell whose neighbourhood is inspected.
+     * @param state The state to look for.
+     * @return The number of adjacent people in that state.
+     */
+    int countAdjacent(int cell, State state) {
+        int tag = state.ordinal() + 1;
+        int count = 0;
+        for (int offset : offsets) {
+            if ((grid[cell + offset] & STATE_MASK) == tag) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Return the depth of the field.
+     *
+     * @return The depth of the field.
+     */
+    int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Return the width of the field.
+     *
+     * @return The width of the field.
+     */
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * Return the cell of the given location.
+     *
+     * @param row The row, between 0 and depth - 1.
+     * @param col The column, between 0 and width - 1.
+     * @return The index of the cell in the grid.
+     */
+    int cell(int row, int col) {
+        return (row + 1) * stride + col + 1;
+    }
+
+    /**
+     * Return the location of the given cell. Locations are immutable, so a
+     * single instance per cell is shared by every caller.
+     *
+     * @param cell A cell within the grid area.
+     * @return The location of the cell.
+     */
+    Location locationOf(int cell) {
+        Location[] table = locations;
+        if (table == null) {
+            table = new Location[grid.length];
+            for (int row = 0; row < depth; row++) {
+                for (int col = 0; col < width; col++) {
+                    table[cell(row, col)] = new Location(row, col);
+                }
+            }
+            locations = table;
+        }
+        return table[cell];
+    }
+
+    /**
+     * @return The row of the given cell.
+     */
+    int rowOf(int cell) {
+        return cell / stride - 1;
+    }
+
+    /**
+     * @return The column of the given cell.
+     */
+    int colOf(int cell) {
+        return cell % stride - 1;
+    }
+
+    /**
+     * Enumerate all the orderings of n items in lexicographic order.
+     *
+     * @param n The number of items, small enough for n! orderings to fit.
+     * @return The orderings, n entries each.
+     */
+    private static byte[] orderings(int n) {
+        int count = 1;
+        for (int i = 2; i <= n; i++) {
+            count *= i;
+        }
+        byte[] orderings = new byte[count * n];
+        byte[] current = new byte[n];
+        for (int i = 0; i < n; i++) {
+            current[i] = (byte) i;
+        }
+        for (int k = 0; k < count; k++) {
+            System.arraycopy(current, 0, orderings, k * n, n);
+            // Step to the next ordering: find the rightmost ascent, swap it
+            // with the smallest larger item on its right and reverse the tail.
+            int i = n - 2;
+            while (i >= 0 && current[i] > current[i + 1]) {
+                i--;
+            }
+            if (i < 0) {
+                break;
+            }
+            int j = n - 1;
+            while (current[j] < current[i]) {
+                j--;
+            }
+            byte swap = current[i];
+            current[i] = current[j];
+            current[j] = swap;
+            for (int lo = i + 1, hi = n - 1; lo < hi; lo++, hi--) {
+                swap = current[lo];
+                current[lo] = current[hi];
+                current[hi] = swap;
+            }
+        }
+        return orderings;
+    }
+}
@@ -0,0 +1,107 @@
+package pandemic;
+
+/**
+ * This class provides some statistical data on the state of a field: the
+ * number of people in each state at a given step. The counts are kept up to
+ * date by the population as the states change, and a FieldStats is a
+ * read-only copy of them handed to the views after each step, so nobody has
+ * to walk the field to count.
+ *
+ * @author David J. Barnes and Michael Kölling
+ * @version 2016.02.29
+ */
+class FieldStats {
+    // Shared copy of the states, values() clones the array on each call.
+    private static final State[] STATES = State.values();
+
+    // The step the counts were taken at.
+    private final int step;
+    // The number of people in each state, indexed by ordinal.
+    private final int[] counts;
+
+    /**
+     * Construct a FieldStats object.
+     *
+     * @param step   The step the counts were taken at.
+     * @param counts The number of people in each state, indexed by ordinal.
+     *               The array is copied.
+     */
+    FieldStats(int step, int[] counts) {
+        this.step = step;
+        this.counts = counts.clone();
+    }
+
+    /**
+     * Construct a FieldStats object with the same counts as another one, at
+     * another step.
+     *
+     * @param step  The step the counts are for.
+     * @param stats The counts.
+     */
+    FieldStats(int step, FieldStats stats) {
+        this.step = step;
+        this.counts = stats.counts;
+    }
+
+    /**
+     * @return The step the counts were taken at.
+     */
+    int getStep() {
+        return step;
+    }
+
+    /**
+     * Get details of what is in the field.
+     *
+     * @return A string describing what is in the field.
+     */
+    String getPopulationDetails() {
+        StringBuilder buffer = new StringBuilder();
+        for (State state : STATES) {
+            if (counts[state.ordinal()] > 0) {
+                buffer.append(state.getSimpleName());
+                buffer.append(": ");
+                buffer.append(counts[state.ordinal()]);
+                buffer.append(' ');
+            }
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Get the number of people in a given state.
+     *
+     * @return An int with the number for this state.
+     */
+    int getPopulationCount(State key) {
+        return counts[key.ordinal()];
+    }
+
+    /**
+     * @return The total number of people.
+     */
+    int getTotal() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Determine whether the simulation is still viable. I.e., should it
+     * continue to run.
+     *
+     * @return true If people are found in more than one state.
+     */
+    boolean isViable() {
+        // How many counts are non-zero.
+        int nonZero = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                nonZero++;
+            }
+        }
+        return nonZero > 1;
+    }
+}
@@ -0,0 +1,107 @@
+package pandemic;
+
+
+/**
+ * A class representing the people in our simulation.
+ * A human is a thin view on one entry of the Population, which holds the
+ * actual data.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2021.04.20
+ */
+class Human {
+
+    // the default number of steps the disease lasts at least,
+    //  a run reads it from its SimulationParameters
+    static final int MAX_CONTAMINATION = 10;
+
+    // the population holding the people's data
+    private final Population population;
+    // the people's index in the population
+    private final int index;
+
+    /**
+     * Create a view on a person of the population.
+     *
+     * @param population The population holding the person.
+     * @param index      The person's index in the population.
+     */
+    Human(Population population, int index) {
+        this.population = population;
+        this.index = index;
+    }
+
+    /**
+     * @return The people's index in the population.
+     */
+    int getIndex() {
+        return index;
+    }
+
+    /**
+     * Return the people's location.
+     *
+     * @return The people's location.
+     */
+    Location getLocation() {
+        return population.getLocation(index);
+    }
+
+    /**
+     * Place the people at the new location in the given field.
+     *
+     * @param newLocation The people's new location.
+     */
+    void setLocation(Location newLocation) {
+        population.setLocation(index, newLocation);
+    }
+
+    /**
+     * Return the people's field.
+     *
+     * @return The people's field.
+     */
+    Field getField() {
+        return population.getField();
+    }
+
+    /**
+     * @return the human's state
+     */
+    public State getStatus(){
+        return population.getState(index);
+    }
+
+    void setStatus(State state){
+        population.setState(index, state);
+    }
+
+    /**
+     * @return the number of steps the human has been infected for
+     */
+    int getContamination() {
+        return population.getContamination(index);
+    }
+
+    /**
+     * This is what a human does most of time
+     */
+    void act() {
+        population.act(index);
+    }
+
+    /**
+     * this is how an infected person behaves
+     */
+    void infectedBehaviour() {
+        population.infectedBehaviour(index);
+    }
+
+    /**
+     * This is how a person moves from a location to another
+     */
+    void move(){
+        population.move(index);
+    }
+
+}
@@ -46,15 +46,16 @@ class Location {
     }
 
     /**
-     * Use the top 16 bits for the row value and the bottom for
-     * the column. Except for very big grids, this should give a
-     * unique hash code for each (row, col) pair.
+     * Combine the row and the column the usual way. Different locations
+     * may share a hash code, which only matters for hashing: cells are
+     * identified by their index in the field, not by this value, so grids
+     * wider than 65536 columns are fine.
      *
      * @return A hashcode for the location.
      */
     @Override
     public int hashCode() {
-        return (row << 16) + col;
+        return 31 * row + col;
     }
 
     /**
@@ -0,0 +1,184 @@
+package pandemic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A list of points of the parameter space of the simulation, each point
+ * being a complete set of parameters. The parameters which are not swept
+ * keep the values of a base set of parameters.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class ParameterSpace {
+    /**
+     * The parameters which can be swept, named as on the command line.
+     */
+    enum Parameter {
+        HEALTHY("healthy"),
+        INFECTED("infected"),
+        INFECTION_RATE("infection-rate"),
+        INFECTION_DURATION("infection-duration"),
+        MORTALITY_RATE("mortality-rate"),
+        MAX_CONTAMINATION("max-contamination");
+
+        private final String name;
+
+        Parameter(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return The name of the parameter on the command line.
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * Find a parameter by its command line name.
+         *
+         * @param name The name.
+         * @return The parameter.
+         * @throws IllegalArgumentException If there is no such parameter.
+         */
+        static Parameter named(String name) {
+            for (Parameter parameter : values()) {
+                if (parameter.name.equals(name)) {
+                    return parameter;
+                }
+            }
+            throw new IllegalArgumentException("Unknown parameter " + name);
+        }
+
+        /**
+         * @return The value of this parameter in the given set.
+         */
+        double get(SimulationParameters parameters) {
+            switch (this) {
+                case HEALTHY:
+                    return parameters.getHealthyCreationProbability();
+                case INFECTED:
+                    return parameters.getInfectedCreationProbability();
+                case INFECTION_RATE:
+                    return parameters.getInfectionRate();
+                case INFECTION_DURATION:
+                    return parameters.getInfectionDuration();
+                case MORTALITY_RATE:
+                    return parameters.getMortalityRate();
+                default:
+                    return parameters.getMaxContamination();
+            }
+        }
+
+        /**
+         * Return a copy of a set of parameters with a new value of this
+         * parameter. The number of steps of contamination is rounded.
+         *
+         * @param parameters The set of parameters.
+         * @param value      The new value.
+         * @return The new set of parameters.
+         */
+        SimulationParameters set(SimulationParameters parameters, double value) {
+            double[] values = new double[Parameter.values().length];
+            for (Parameter parameter : Parameter.values()) {
+                values[parameter.ordinal()] = parameter == this ? value : parameter.get(parameters);
+            }
+            return new SimulationParameters(values[HEALTHY.ordinal()],
+                values[INFECTED.ordinal()], values[INFECTION_RATE.ordinal()],
+                values[INFECTION_DURATION.ordinal()], values[MORTALITY_RATE.ordinal()],
+                (int) Math.round(values[MAX_CONTAMINATION.ordinal()]));
+        }
+    }
+
+    private final List<SimulationParameters> points;
+
+    private ParameterSpace(List<SimulationParameters> points) {
+        this.points = Collections.unmodifiableList(points);
+    }
+
+    /**
+     * Every combination of the given values. The parameter coming first in
+     * the map varies the slowest.
+     *
+     * @param base   The values of the parameters which are not swept.
+     * @param values The values of each swept parameter.
+     * @return The space.
+     * @throws IllegalArgumentException If a combination does not make a
+     *                                  model.
+     */
+    static ParameterSpace cartesian(SimulationParameters base, Map<Parameter, double[]> values) {
+        List<SimulationParameters> points = new ArrayList<>();
+        points.add(base);
+        for (Map.Entry<Parameter, double[]> entry : values.entrySet()) {
+            List<SimulationParameters> combined = new ArrayList<>();
+            for (SimulationParameters point : points) {
+                for (double value : entry.getValue()) {
+                    combined.add(entry.getKey().set(point, value));
+                }
+            }
+            points = combined;
+        }
+        return new ParameterSpace(points);
+    }
+
+    /**
+     * A Latin hypercube sample: the range of each parameter is cut into as
+     * many strata as there are samples, and each stratum of each parameter
+     * is drawn from exactly once, at a random place.
+     *
+     * @param base    The values of the parameters which are not swept.
+     * @param ranges  The lowest and highest values of each swept parameter.
+     * @param samples The number of points.
+     * @param seed    The seed of the sample.
+     * @return The space.
+     * @throws IllegalArgumentException If a point does not make a model.
+     */
+    static ParameterSpace latinHypercube(SimulationParameters base, Map<Parameter, double[]> ranges,
+                                         int samples, long seed) {
+        Random rand = new Random(seed);
+        List<SimulationParameters> points = new ArrayList<>(Collections.nCopies(samples, base));
+        for (Map.Entry<Parameter, double[]> entry : ranges.entrySet()) {
+            double low = entry.getValue()[0];
+            double width = (entry.getValue()[1] - low) / samples;
+            List<Integer> strata = new ArrayList<>();
+            for (int k = 0; k < samples; k++) {
+                strata.add(k);
+            }
+            Collections.shuffle(strata, rand);
+            for (int k = 0; k < samples; k++) {
+                double value = low + (strata.get(k) + rand.nextDouble()) * width;
+                points.set(k, entry.getKey().set(points.get(k), value));
+            }
+        }
+        return new ParameterSpace(points);
+    }
+
+    /**
+     * The given points, in order.
+     *
+     * @param points The points.
+     * @return The space.
+     */
+    static ParameterSpace explicit(List<SimulationParameters> points) {
+        return new ParameterSpace(new ArrayList<>(points));
+    }
+
+    /**
+     * @return The points of the space.
+     */
+    List<SimulationParameters> getPoints() {
+        return points;
+    }
+
+    /**
+     * @return The number of points.
+     */
+    int size() {
+        return points.size();
+    }
+}
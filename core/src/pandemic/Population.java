@@ -0,0 +1,536 @@
+package pandemic;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static pandemic.Event.INFECTION_DURATION;
+import static pandemic.Event.INFECTION_RATE;
+import static pandemic.Event.MORTALITY_RATE;
+import static pandemic.State.*;
+import static pandemic.Transition.nextState;
+
+/**
+ * The people of the simulation, stored as parallel primitive arrays rather
+ * than as one object per person. Person i is described by the state ordinal,
+ * contamination counter and cell found at index i of each array; a Human is
+ * only a thin view on such an index.
+ * People in a sleeping chunk of the field have no infected people around
+ * them, so their state cannot change: they only move, and are left alone
+ * when movement is turned off.
+ * The people whose state can no longer change and who do not move, the dead
+ * and, when movement is off, whoever is in a final state of the model, are
+ * retired from the active people at the end of each step. They stay on the
+ * field.
+ * The number of people in each state is kept up to date as the states
+ * change.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class Population {
+    // Shared copy of the states, values() clones the array on each call.
+    private static final State[] STATES = State.values();
+
+    // The field the people live on.
+    private final Field field;
+    // The state ordinal of each person.
+    private byte[] states;
+    // The states of the next step, written by synchronous updates and
+    // swapped with states once every person has been updated.
+    private byte[] nextStates;
+    // The number of steps each person has been infected for.
+    private final int[] contamination;
+    // The cell of each person in the field's grid.
+    private final int[] cells;
+    // The people still stepped, in population order: active[0..activeCount).
+    private final int[] active;
+    private int activeCount;
+    // The model and movement the active people were chosen with.
+    private CompartmentModel activeModel;
+    private boolean activeMoving;
+    // The number of people.
+    private int size;
+    // The number of people in each state, indexed by ordinal. People of
+    // different bands may change state concurrently, hence the atomics.
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(STATES.length);
+    // The seed and number of the running step, which key the random streams.
+    private long seed;
+    private int step;
+    // The parameters of the running step.
+    private SimulationParameters parameters = SimulationParameters.DEFAULT;
+    // Whether the people move around.
+    private boolean moving = true;
+    // Bumped whenever people are added or placed from outside a step.
+    private int version;
+
+    /**
+     * Create an empty population for the given field. There can be at most
+     * one person per location, so the arrays are sized once for the field.
+     *
+     * @param field The field the people live on.
+     */
+    Population(Field field) {
+        this.field = field;
+        field.setPopulation(this);
+        int capacity = field.getDepth() * field.getWidth();
+        states = new byte[capacity];
+        nextStates = new byte[capacity];
+        contamination = new int[capacity];
+        cells = new int[capacity];
+        active = new int[capacity];
+    }
+
+    /**
+     * Remove everybody. The field has to be cleared separately.
+     */
+    void clear() {
+        size = 0;
+        for (int state = 0; state < STATES.length; state++) {
+            counts.set(state, 0);
+        }
+        activeCount = 0;
+        version++;
+    }
+
+    /**
+     * Turn movement on or off. People who do not move can be stepped only
+     * when the disease is around them.
+     *
+     * @param moving Whether the people move around.
+     */
+    void setMoving(boolean moving) {
+        this.moving = moving;
+    }
+
+    /**
+     * @return Whether the people move around.
+     */
+    boolean isMoving() {
+        return moving;
+    }
+
+    /**
+     * @return A number which changes whenever people are added or placed
+     * other than by a step.
+     */
+    int getVersion() {
+        return version;
+    }
+
+    /**
+     * Start a new step. The random streams of the people are derived from
+     * the seed and the step, so that every person draws the same numbers
+     * whatever the order they are stepped in.
+     *
+     * @param seed       The seed of the simulation.
+     * @param step       The number of the new step.
+     * @param parameters The parameters of the new step.
+     */
+    void beginStep(long seed, int step, SimulationParameters parameters) {
+        this.seed = seed;
+        this.step = step;
+        this.parameters = parameters;
+        if (parameters.getModel() != activeModel || moving != activeMoving) {
+            reactivate();
+        }
+    }
+
+    /**
+     * Make active again everybody who is not retired under the current
+     * model and movement.
+     */
+    private void reactivate() {
+        activeModel = parameters.getModel();
+        activeMoving = moving;
+        activeCount = 0;
+        for (int index = 0; index < size; index++) {
+            if (!isRetired(index)) {
+                active[activeCount++] = index;
+            } else {
+                // synchronous steps swap the arrays, keep both up to date
+                nextStates[index] = states[index];
+            }
+        }
+        version++;
+    }
+
+    /**
+     * Retire the active people who can no longer change. Called at the end
+     * of each step; the others keep their order.
+     */
+    void compact() {
+        int kept = 0;
+        for (int k = 0; k < activeCount; k++) {
+            int index = active[k];
+            if (isRetired(index)) {
+                // synchronous steps swap the arrays, keep both up to date
+                nextStates[index] = states[index];
+            } else {
+                active[kept++] = index;
+            }
+        }
+        if (kept != activeCount) {
+            activeCount = kept;
+            version++;
+        }
+    }
+
+    /**
+     * @return Whether the given person can neither move nor change state.
+     */
+    private boolean isRetired(int index) {
+        State state = STATES[states[index]];
+        return state != INFECTED && (state == DEAD || !moving)
+            && parameters.getModel().isAbsorbing(state);
+    }
+
+    /**
+     * @return The number of people still stepped.
+     */
+    int activeCount() {
+        return activeCount;
+    }
+
+    /**
+     * @return The people still stepped, in the first activeCount() entries.
+     */
+    int[] getActive() {
+        return active;
+    }
+
+    /**
+     * Add a new person at the given location of the field.
+     *
+     * @param row   Row coordinate of the location.
+     * @param col   Column coordinate of the location.
+     * @param state The initial state of the person.
+     * @return The index of the new person.
+     */
+    int add(int row, int col, State state) {
+        int index = size++;
+        active[activeCount++] = index;
+        version++;
+        states[index] = (byte) state.ordinal();
+        // synchronous steps swap the arrays, keep both up to date
+        nextStates[index] = states[index];
+        counts.incrementAndGet(state.ordinal());
+        contamination[index] = state == INFECTED ? 1 : 0;
+        cells[index] = field.cell(row, col);
+        field.place(index, state, cells[index]);
+        return index;
+    }
+
+    /**
+     * @return The number of people.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of people in the given state.
+     */
+    int count(State state) {
+        return counts.get(state.ordinal());
+    }
+
+    /**
+     * Take a copy of the number of people in each state.
+     *
+     * @param step The current step.
+     * @return The counts, as of the end of the last step.
+     */
+    FieldStats getStats(int step) {
+        int[] copy = new int[STATES.length];
+        for (int state = 0; state < copy.length; state++) {
+            copy[state] = counts.get(state);
+        }
+        return new FieldStats(step, copy);
+    }
+
+    /**
+     * @return The field the people live on.
+     */
+    Field getField() {
+        return field;
+    }
+
+    /**
+     * @return The state of the given person.
+     */
+    State getState(int index) {
+        return STATES[states[index]];
+    }
+
+    /**
+     * Change the state of the given person, on the field as well.
+     *
+     * @param index The person.
+     * @param state The person's new state.
+     */
+    void setState(int index, State state) {
+        counts.decrementAndGet(states[index]);
+        counts.incrementAndGet(state.ordinal());
+        states[index] = (byte) state.ordinal();
+        field.setState(cells[index], state);
+    }
+
+    /**
+     * @return The number of steps the given person has been infected for.
+     */
+    int getContamination(int index) {
+        return contamination[index];
+    }
+
+    /**
+     * Set the number of steps the given person has been infected for, when
+     * bringing back a saved population.
+     *
+     * @param index         The person.
+     * @param contamination The number of steps.
+     */
+    void setContamination(int index, int contamination) {
+        this.contamination[index] = contamination;
+    }
+
+    /**
+     * Copy the states, contamination counters and locations (as
+     * row * width + col) of everybody, in population order. Only to be
+     * called between steps.
+     *
+     * @param states        The array to copy the state ordinals to.
+     * @param contamination The array to copy the contamination counters to.
+     * @param locations     The array to copy the locations to.
+     */
+    void copyTo(byte[] states, int[] contamination, int[] locations) {
+        System.arraycopy(this.states, 0, states, 0, size);
+        System.arraycopy(this.contamination, 0, contamination, 0, size);
+        int width = field.getWidth();
+        for (int index = 0; index < size; index++) {
+            locations[index] = field.rowOf(cells[index]) * width + field.colOf(cells[index]);
+        }
+    }
+
+    /**
+     * @return The location of the given person.
+     */
+    Location getLocation(int index) {
+        return field.locationOf(cells[index]);
+    }
+
+    /**
+     * Move the given person to a new location of the field.
+     *
+     * @param index       The person.
+     * @param newLocation The person's new location.
+     */
+    void setLocation(int index, Location newLocation) {
+        version++;
+        moveTo(index, field.cell(newLocation.getRow(), newLocation.getCol()));
+    }
+
+    /**
+     * Move the given person to a new cell of the field.
+     *
+     * @param index   The person.
+     * @param newCell The person's new cell.
+     */
+    void moveTo(int index, int newCell) {
+        field.clearCell(cells[index]);
+        cells[index] = newCell;
+        field.place(index, getState(index), newCell);
+    }
+
+    /**
+     * @return The cell of the given person.
+     */
+    int getCell(int index) {
+        return cells[index];
+    }
+
+    /**
+     * @return A view on the given person.
+     */
+    Human get(int index) {
+        return new Human(this, index);
+    }
+
+    /**
+     * Run one step of the given person: move unless dead, then either let
+     * the disease run its course or catch it from the neighbours.
+     *
+     * @param index The person.
+     * @param rand  The generator to draw the person's random streams from.
+     * @return true if the person was infected during this step.
+     */
+    boolean step(int index, AgentRandom rand) {
+        moveUnlessDead(index, rand);
+        if (!field.isAwake(cells[index])) {
+            return false;
+        }
+        rand.reset(seed, step, index, AgentRandom.CHANGE);
+        State status = getState(index);
+        boolean infected = status == INFECTED;
+        State newState = infected ? course(index, status, rand) : caught(index, status, rand);
+        if (newState != status) {
+            setState(index, newState);
+        }
+        return infected;
+    }
+
+    /**
+     * This is what a person does most of the time: catch the disease from
+     * infected neighbours.
+     *
+     * @param index The person.
+     */
+    void act(int index) {
+        State status = getState(index);
+        State newState = caught(index, status, Randomizer.getRandom());
+        if (newState != status) {
+            setState(index, newState);
+        }
+    }
+
+    /**
+     * This is how an infected person behaves: the disease runs its course.
+     *
+     * @param index The person.
+     */
+    void infectedBehaviour(int index) {
+        State status = getState(index);
+        State newState = course(index, status, Randomizer.getRandom());
+        if (newState != status) {
+            setState(index, newState);
+        }
+    }
+
+    /**
+     * Move the given person unless they are dead or movement is off. Used by
+     * synchronous steps, which move everybody before updating any state.
+     *
+     * @param index The person.
+     * @param rand  The generator to draw the person's moves from.
+     */
+    void moveUnlessDead(int index, AgentRandom rand) {
+        if (moving && states[index] != DEAD.ordinal()) {
+            move(index, rand.reset(seed, step, index, AgentRandom.MOVE));
+        }
+    }
+
+    /**
+     * Work out the next state of the given person from the current states
+     * only, as found on the field, and keep it aside until commit() is
+     * called. Neither the field nor anybody else's state is changed, so the
+     * people can be updated in any order or in parallel.
+     *
+     * @param index The person.
+     * @param rand  The generator to draw the person's random streams from.
+     * @return true if the person is infected in the current state.
+     */
+    boolean update(int index, AgentRandom rand) {
+        if (!field.isAwake(cells[index])) {
+            nextStates[index] = states[index];
+            return false;
+        }
+        rand.reset(seed, step, index, AgentRandom.CHANGE);
+        State status = getState(index);
+        boolean infected = status == INFECTED;
+        State newState = infected ? course(index, status, rand) : caught(index, status, rand);
+        nextStates[index] = (byte) newState.ordinal();
+        return infected;
+    }
+
+    /**
+     * Make the states worked out by update() the current ones. Must be
+     * followed by refresh() for every person before the field is used.
+     */
+    void commit() {
+        byte[] previous = states;
+        states = nextStates;
+        nextStates = previous;
+    }
+
+    /**
+     * Bring the field up to date with the committed state of the given
+     * person.
+     *
+     * @param index The person.
+     */
+    void refresh(int index) {
+        if (states[index] != nextStates[index]) {
+            counts.decrementAndGet(nextStates[index]);
+            counts.incrementAndGet(states[index]);
+            field.setState(cells[index], STATES[states[index]]);
+        }
+    }
+
+    /**
+     * Catch the disease from the infected neighbours.
+     *
+     * @param index  The person.
+     * @param status The person's current state.
+     * @param rand   The generator deciding whether the disease is caught.
+     * @return The person's next state.
+     */
+    private State caught(int index, State status, Random rand) {
+        if (status != HEALTHY && status != RECOVERED) {
+            return status;
+        }
+        SimulationParameters parameters = this.parameters;
+        // each infected neighbour is one more chance of catching the disease
+        for (int n = field.countAdjacent(cells[index], INFECTED); n > 0; n--) {
+            if (status == HEALTHY) {
+                status = nextState(parameters, HEALTHY, INFECTION_RATE, rand);
+            } else if (status == RECOVERED) {
+                status = nextState(parameters, RECOVERED, INFECTION_RATE, rand);
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Let the disease run its course.
+     *
+     * @param index  The person.
+     * @param status The person's current state.
+     * @param rand   The generator deciding how the disease ends.
+     * @return The person's next state.
+     */
+    private State course(int index, State status, Random rand) {
+        SimulationParameters parameters = this.parameters;
+        contamination[index]++;
+        if (contamination[index] > parameters.getMaxContamination()) {
+            if (status == INFECTED) {
+                // the disease may end, and is then fatal or not
+                if (nextState(parameters, INFECTED, INFECTION_DURATION, rand) != INFECTED) {
+                    return nextState(parameters, INFECTED, MORTALITY_RATE, rand);
+                }
+                return INFECTED;
+            }
+            return nextState(parameters, HEALTHY, INFECTION_RATE, rand);
+        }
+        return status;
+    }
+
+    /**
+     * This is how a person moves from a location to a free adjacent one.
+     * Somebody who is surrounded stays where they are.
+     *
+     * @param index The person.
+     */
+    void move(int index) {
+        move(index, Randomizer.getRandom());
+    }
+
+    /**
+     * Same as move(index), drawing the new location from the given random
+     * generator.
+     */
+    void move(int index, Random rand) {
+        int newCell = field.freeAdjacentCell(cells[index], rand);
+        if (newCell >= 0) {
+            moveTo(index, newCell);
+        }
+    }
+}
@@ -10,7 +10,7 @@ import java.util.Random;
  */
 class Randomizer {
     // The default seed for control of randomization.
-    private static final int SEED = 1111;
+    static final int SEED = 1111;
     // A shared Random object, if required.
     private static final Random rand = new Random(SEED);
     // Determine whether a shared random generator is to be provided.
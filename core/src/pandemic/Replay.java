@@ -0,0 +1,113 @@
+package pandemic;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plays a recorded trajectory back to views, in place of a simulator: each
+ * frame shown is loaded onto a field of its own and handed to the views as
+ * a step would be. Frames can be shown in any order; going forward one frame
+ * at a time only costs the changes of that frame, going back costs a
+ * keyframe and the changes after it.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class Replay {
+    private final Trajectory trajectory;
+    private final Field field;
+    private final List<SimulatorView> views = new ArrayList<>();
+    // The frame shown, -1 before the first.
+    private int frame = -1;
+
+    /**
+     * @param trajectory The trajectory to play.
+     * @param views      The views to show it in.
+     */
+    Replay(Trajectory trajectory, SimulatorView... views) {
+        this.trajectory = trajectory;
+        field = new Field(trajectory.getDepth(), trajectory.getWidth());
+        this.views.addAll(Arrays.asList(views));
+        field.setLogging(this.views.stream().anyMatch(SimulatorView::wantsChanges));
+    }
+
+    /**
+     * @return The trajectory played.
+     */
+    Trajectory getTrajectory() {
+        return trajectory;
+    }
+
+    /**
+     * @return The frame shown, -1 before the first.
+     */
+    int getFrame() {
+        return frame;
+    }
+
+    /**
+     * @return Whether there is a frame after the one shown.
+     */
+    boolean hasNext() {
+        return frame + 1 < trajectory.getFrameCount();
+    }
+
+    /**
+     * Show the next frame, if any.
+     *
+     * @return The frame shown.
+     * @throws UncheckedIOException If the frame is corrupt.
+     */
+    int next() {
+        if (hasNext()) {
+            show(frame + 1);
+        }
+        return frame;
+    }
+
+    /**
+     * Show the frame of a step: the last one recorded at or before it.
+     *
+     * @param step The step.
+     * @return The frame shown.
+     * @throws UncheckedIOException If the frame is corrupt.
+     */
+    int seek(int step) {
+        show(trajectory.frameOf(step));
+        return frame;
+    }
+
+    /**
+     * Show a frame. The views are reset first unless it is the frame after
+     * the one shown, so that a view keeping the history of the steps starts
+     * it again.
+     *
+     * @param frame The frame, between 0 and the number of frames.
+     * @throws UncheckedIOException If the frame is corrupt.
+     */
+    void show(int frame) {
+        if (frame == this.frame) {
+            return;
+        }
+        FieldStats stats;
+        try {
+            trajectory.load(frame, field);
+            stats = trajectory.getStats(frame);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (frame != this.frame + 1) {
+            views.forEach(SimulatorView::reset);
+        }
+        this.frame = frame;
+        if (field.isLogging()) {
+            field.collectChanges(stats.getStep());
+        }
+        for (SimulatorView view : views) {
+            view.showStatus(stats.getStep(), field, stats);
+        }
+    }
+}
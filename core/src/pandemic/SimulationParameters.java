@@ -0,0 +1,98 @@
+package pandemic;
+
+/**
+ * The parameters of a simulation run. Instances are immutable: a change of
+ * parameters is a new instance, which the simulator picks up as a whole at
+ * the start of its next step, so that a step never sees half an edit.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+final class SimulationParameters {
+    // The parameters the simulation starts with.
+    static final SimulationParameters DEFAULT = new SimulationParameters(
+        Simulator.HEALTHY_CREATION_PROBABILITY, Simulator.INFECTED_CREATION_PROBABILITY,
+        Event.INFECTION_RATE.probability, Event.INFECTION_DURATION.probability,
+        Event.MORTALITY_RATE.probability, Human.MAX_CONTAMINATION);
+
+    private final double healthyCreationProbability;
+    private final double infectedCreationProbability;
+    private final double infectionRate;
+    private final double infectionDuration;
+    private final double mortalityRate;
+    private final int maxContamination;
+    // The transitions compiled from the probabilities above.
+    private final CompartmentModel model;
+
+    /**
+     * Create a set of parameters.
+     *
+     * @param healthyCreationProbability  The probability of a location
+     *                                    starting with a healthy people.
+     * @param infectedCreationProbability The probability of a location
+     *                                    starting with an infected people.
+     * @param infectionRate               The probability of catching the
+     *                                    disease from an infected neighbour.
+     * @param infectionDuration           The probability of the disease
+     *                                    ending at each step.
+     * @param mortalityRate               The probability of an ending
+     *                                    disease being fatal.
+     * @param maxContamination            The number of steps the disease
+     *                                    lasts at least.
+     */
+    SimulationParameters(double healthyCreationProbability, double infectedCreationProbability,
+                         double infectionRate, double infectionDuration,
+                         double mortalityRate, int maxContamination) {
+        this.healthyCreationProbability = healthyCreationProbability;
+        this.infectedCreationProbability = infectedCreationProbability;
+        this.infectionRate = infectionRate;
+        this.infectionDuration = infectionDuration;
+        this.mortalityRate = mortalityRate;
+        this.maxContamination = maxContamination;
+        model = CompartmentModel.of(infectionRate, infectionDuration, mortalityRate);
+    }
+
+    double getHealthyCreationProbability() {
+        return healthyCreationProbability;
+    }
+
+    double getInfectedCreationProbability() {
+        return infectedCreationProbability;
+    }
+
+    double getInfectionRate() {
+        return infectionRate;
+    }
+
+    double getInfectionDuration() {
+        return infectionDuration;
+    }
+
+    double getMortalityRate() {
+        return mortalityRate;
+    }
+
+    int getMaxContamination() {
+        return maxContamination;
+    }
+
+    /**
+     * @return The transitions compiled from these parameters.
+     */
+    CompartmentModel getModel() {
+        return model;
+    }
+
+    /**
+     * @return A string of the form name=value, ...
+     */
+    @Override
+    public String toString() {
+        return "healthyCreationProbability=" + healthyCreationProbability
+            + ", infectedCreationProbability=" + infectedCreationProbability
+            + ", infectionRate=" + infectionRate
+            + ", infectionDuration=" + infectionDuration
+            + ", mortalityRate=" + mortalityRate
+            + ", maxContamination=" + maxContamination;
+    }
+}
@@ -0,0 +1,349 @@
+package pandemic;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static pandemic.State.*;
+
+/**
+ * A simple pandemic simulator, based on a rectangular field containing
+ * susceptible, infected, recovered and dead people.
+ *
+ * @author Sahi Gonsangbeu
+ * @author Peter Sander
+ * @version 2021.04.14
+ */
+class Simulator {
+    static final int DEFAULT_WIDTH = 100;
+    static final int DEFAULT_DEPTH = 100;
+    static final int ITERATIONS = 5000;
+    static final double INFECTED_CREATION_PROBABILITY=0.4;
+    static final double HEALTHY_CREATION_PROBABILITY=0.6;
+
+    private final Population population;
+    private final Field field;
+    private int step;
+    private final List<SimulatorView> views = new ArrayList<>();
+    private int infectedCounter;
+    // The counts at the end of the last step.
+    private FieldStats stats;
+    // Runs the steps, in the calling thread unless given a pool.
+    private BandStepper stepper;
+    // The seed of the random streams of the run.
+    private long seed = Randomizer.SEED;
+    // The latest parameters, which may be set from another thread.
+    private volatile SimulationParameters pendingParameters = SimulationParameters.DEFAULT;
+    // The parameters of the running step.
+    private SimulationParameters parameters;
+    // Whether the states of a step only depend on those of the previous step.
+    private boolean synchronous;
+    // Every how many steps the view updates are recorded by the flight
+    // recorder, if enabled.
+    private int viewEventInterval = 10;
+    // The time the last step took, compaction and views aside, and the
+    // number of people it went through.
+    private long lastStepNanos;
+    private int lastStepPeople;
+
+    /**
+     * Construct a simulation field with default size.
+     */
+    Simulator(SimulatorView... views) {
+        this(DEFAULT_DEPTH, DEFAULT_WIDTH, views);
+    }
+
+    /**
+     * Create a simulation field with the given size.
+     *
+     * @param depth Depth of the field. Must be greater than zero.
+     * @param width Width of the field. Must be greater than zero.
+     */
+    Simulator(int depth, int width, SimulatorView... views) {
+        if (width <= 0 || depth <= 0) {
+            System.out.println("The dimensions must be greater than zero.");
+            System.out.println("Using default values.");
+            depth = DEFAULT_DEPTH;
+            width = DEFAULT_WIDTH;
+        }
+        field = new Field(depth, width);
+        population = new Population(field);
+        stepper = new BandStepper(population, null);
+        this.views.addAll(Arrays.asList(views));
+        field.setLogging(this.views.stream().anyMatch(SimulatorView::wantsChanges));
+        reset();
+    }
+
+    /**
+     * Tell whether the simulation should go on. The first view, if any, has
+     * its say; a headless run decides from the counts alone.
+     *
+     * @param step The current step.
+     * @return Whether to run another step.
+     */
+    boolean isViable(int step) {
+        boolean viable = views.isEmpty() ? stats.isViable() : views.get(0).isViable(stats);
+        return step <= ITERATIONS && viable && infectedCounter!=0;
+    }
+
+    /**
+     * Run the simulation from its current state for a single step. Iterate over
+     * the whole population updating the state of each person.
+     *
+     * @return Current step.
+     */
+    int simulateOneStep() {
+        StepEvent event = new StepEvent();
+        event.begin();
+        boolean timed = event.isEnabled();
+        long start = System.nanoTime();
+        step++;
+        parameters = pendingParameters;
+        population.beginStep(seed, step, parameters);
+        field.wakeChunks();
+        long prepared = timed ? System.nanoTime() : 0;
+        stepper.setTimed(timed);
+        lastStepPeople = population.activeCount();
+        infectedCounter = synchronous ? stepper.stepSynchronously() : stepper.step();
+        long stepped = System.nanoTime();
+        lastStepNanos = stepped - start;
+        population.compact();
+        long compacted = timed ? System.nanoTime() : 0;
+        updateViews();
+        if (timed) {
+            event.step = step;
+            event.synchronous = synchronous;
+            event.population = stats.getTotal();
+            event.active = population.activeCount();
+            event.healthy = stats.getPopulationCount(HEALTHY);
+            event.infected = stats.getPopulationCount(INFECTED);
+            event.recovered = stats.getPopulationCount(RECOVERED);
+            event.dead = stats.getPopulationCount(DEAD);
+            event.prepareDuration = prepared - start;
+            event.moveDuration = stepper.getMoveNanos();
+            event.updateDuration = stepper.getUpdateNanos();
+            event.commitDuration = stepper.getCommitNanos();
+            event.compactDuration = compacted - stepped;
+            event.viewsDuration = System.nanoTime() - compacted;
+            event.commit();
+        }
+        return step;
+    }
+
+    /**
+     * Choose how the states are updated. By default each person is updated
+     * in turn and sees the people updated before them in the same step. In
+     * synchronous mode everybody moves first, then every next state is
+     * worked out from the states of the previous step and they all change
+     * at once, so the outcome does not depend on the order of the people.
+     *
+     * @param synchronous Whether to update the states synchronously.
+     */
+    void setSynchronous(boolean synchronous) {
+        this.synchronous = synchronous;
+    }
+
+    /**
+     * Turn the movement of the people on or off. Without movement, only the
+     * parts of the field the disease has reached are stepped.
+     *
+     * @param moving Whether the people move around.
+     */
+    void setMoving(boolean moving) {
+        population.setMoving(moving);
+    }
+
+    /**
+     * Choose how many threads run a step. With more than one, the bands of
+     * the field are stepped on a fork/join pool of that size; otherwise they
+     * are stepped one after the other in the calling thread. Both give the
+     * same results.
+     *
+     * @param parallelism The number of threads.
+     */
+    void setParallelism(int parallelism) {
+        if (stepper.getPool() != null) {
+            stepper.getPool().shutdown();
+        }
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        stepper = new BandStepper(population, pool);
+    }
+
+    /**
+     * Set the seed of the random streams. It is used from the next reset on:
+     * two runs from the same seed and parameters give the same results.
+     *
+     * @param seed The seed.
+     */
+    void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Reset the simulation to a starting position.
+     */
+    void reset() {
+        step = 0;
+        parameters = pendingParameters;
+        population.clear();
+        views.forEach(SimulatorView::reset);
+        populate();
+        updateViews();
+    }
+
+    /**
+     * Take a copy of the state of the simulation, to carry on from later.
+     * Only to be called between steps; the copy can then be written from
+     * another thread while the simulation goes on.
+     *
+     * @return The checkpoint.
+     */
+    Checkpoint checkpoint() {
+        int size = population.size();
+        byte[] states = new byte[size];
+        int[] contamination = new int[size];
+        int[] locations = new int[size];
+        population.copyTo(states, contamination, locations);
+        return new Checkpoint(field.getDepth(), field.getWidth(), step, seed, synchronous,
+            population.isMoving(), parameters, size, states, contamination, locations);
+    }
+
+    /**
+     * Bring the simulation back to a checkpoint. The people are put back in
+     * the same order, and the random streams only depend on the seed and the
+     * step, so the following steps are the same as those of the run the
+     * checkpoint was taken from.
+     *
+     * @param checkpoint The checkpoint.
+     * @throws IllegalArgumentException If the checkpoint is of a field of
+     *                                  another size.
+     */
+    void restore(Checkpoint checkpoint) {
+        if (checkpoint.getDepth() != field.getDepth() || checkpoint.getWidth() != field.getWidth()) {
+            throw new IllegalArgumentException("The checkpoint is of a " + checkpoint.getDepth()
+                + "x" + checkpoint.getWidth() + " field, not " + field.getDepth() + "x"
+                + field.getWidth() + ".");
+        }
+        step = checkpoint.getStep();
+        seed = checkpoint.getSeed();
+        synchronous = checkpoint.isSynchronous();
+        population.setMoving(checkpoint.isMoving());
+        pendingParameters = checkpoint.getParameters();
+        parameters = pendingParameters;
+        population.clear();
+        field.clear();
+        for (int index = 0; index < checkpoint.size(); index++) {
+            population.add(checkpoint.getRow(index), checkpoint.getCol(index),
+                checkpoint.getState(index));
+            population.setContamination(index, checkpoint.getContamination(index));
+        }
+        views.forEach(SimulatorView::reset);
+        updateViews();
+    }
+
+    /**
+     * Update all existing views.
+     */
+    private void updateViews() {
+        stats = population.getStats(step);
+        if (field.isLogging()) {
+            field.collectChanges(step);
+        }
+        boolean sampled = viewEventInterval > 0 && step % viewEventInterval == 0;
+        for (SimulatorView view : views) {
+            ViewEvent event = new ViewEvent();
+            if (sampled && event.isEnabled()) {
+                event.begin();
+                view.showStatus(step, field, stats);
+                event.view = view.getClass().getSimpleName();
+                event.step = step;
+                event.commit();
+            } else {
+                view.showStatus(step, field, stats);
+            }
+        }
+    }
+
+    /**
+     * Choose which steps the view updates are recorded for, when the
+     * pandemic.ViewUpdate flight recorder event is enabled.
+     *
+     * @param interval Record every interval-th step, none if 0.
+     */
+    void setViewEventInterval(int interval) {
+        viewEventInterval = interval;
+    }
+
+    /**
+     * @return The time the last step took, in nanoseconds, without the
+     * compaction and the views.
+     */
+    long getLastStepNanos() {
+        return lastStepNanos;
+    }
+
+    /**
+     * @return The number of people the last step went through.
+     */
+    int getLastStepPeople() {
+        return lastStepPeople;
+    }
+
+    /**
+     * @return The field of the simulation.
+     */
+    Field getField() {
+        return field;
+    }
+
+    /**
+     * @return The people of the simulation.
+     */
+    Population getPopulation() {
+        return population;
+    }
+
+    /**
+     * @return The counts at the end of the last step.
+     */
+    FieldStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Randomly populate the field with people.
+     */
+    private void populate() {
+        Random rand = new AgentRandom().reset(seed, 0, 0, AgentRandom.POPULATE);
+        field.clear();
+        for (int row = 0; row < field.getDepth(); row++) {
+            for (int col = 0; col < field.getWidth(); col++) {
+                if (rand.nextDouble() <= parameters.getInfectedCreationProbability()) {
+                    population.add(row, col, INFECTED);
+                } else if (rand.nextDouble() <= parameters.getHealthyCreationProbability()) {
+                    population.add(row, col, HEALTHY);
+                }
+                // else leave the field empty
+
+            }
+        }
+    }
+
+    /**
+     * Change the parameters of the simulation. This may be called from any
+     * thread: the running step, if any, carries on with the parameters it
+     * started with, and the next one uses the new ones. The creation
+     * probabilities only matter at the next reset.
+     *
+     * @param parameters The new parameters.
+     */
+    void setParameters(SimulationParameters parameters) {
+        pendingParameters = parameters;
+    }
+
+    /**
+     * @return The latest parameters set.
+     */
+    SimulationParameters getParameters() {
+        return pendingParameters;
+    }
+}
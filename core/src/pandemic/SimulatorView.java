@@ -0,0 +1,60 @@
+package pandemic;
+
+/**
+ * A graphical view of the simulation grid. This interface defines all possible
+ * different views.
+ *
+ * @author Michael Kölling and David J. Barnes
+ * @author Peter Sander
+ * @author Sahi Gonsangbeu
+ * @version 2021.04.22
+ */
+interface SimulatorView {
+    /**
+     * Determine whether the simulation should continue to run.
+     *
+     * @param stats The counts of the last step.
+     * @return true If there is more than one species alive.
+     */
+    boolean isViable(FieldStats stats);
+
+    /**
+     * Show the current status of the field.
+     *
+     * @param step  Which iteration step it is.
+     * @param field The field whose status is to be displayed.
+     * @param stats The counts of the people at this step.
+     */
+    void showStatus(int step, Field field, FieldStats stats);
+
+    /**
+     * Tell whether the view is to be told which cells changed at each step,
+     * by the change log of the field it is shown.
+     *
+     * @return true If the field should log its changes.
+     * @see Field#getChanges()
+     */
+    default boolean wantsChanges() {
+        return false;
+    }
+
+    /**
+     * Be told the counts of the steps run since the last one shown, which
+     * are not shown themselves. Called just before the next step is shown.
+     *
+     * @param skipped The counts of the steps skipped, in order.
+     */
+    default void showSkipped(CountHistory skipped) {
+        // only the steps shown matter
+    }
+
+    /**
+     * Prepare for a new run.
+     */
+    void reset();
+
+    /**
+     * Sets up GUI.
+     */
+    void start();
+}
\ No newline at end of file
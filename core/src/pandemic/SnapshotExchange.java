@@ -0,0 +1,181 @@
+package pandemic;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands the state of the simulation over from the thread running the steps
+ * to the thread showing them, without either ever waiting for the other.
+ * The exchange is a view of the simulation: at each step it copies the field
+ * and the counts into a snapshot and publishes it. The showing thread takes
+ * the latest snapshot published whenever it is ready for one; the snapshots
+ * published in between are skipped, but the counts of their steps are
+ * handed over with the next snapshot taken.
+ * <p>
+ * Three snapshots are used in turn (a triple buffer): one being filled by
+ * the steps, one being shown, and the latest published, waiting in a single
+ * atomic slot. Publishing swaps the snapshot just filled with the one in the
+ * slot, which is filled next; taking swaps the snapshot shown with the one
+ * in the slot, if that one is newer. The snapshots are allocated once, at
+ * the first step.
+ * <p>
+ * The stepping thread keeps the counts of the steps published since the
+ * last snapshot it knows to be taken, and copies them into each snapshot.
+ * As the showing thread may take a snapshot in the meantime, the counts a
+ * snapshot comes with may start with steps already handed over: those are
+ * dropped when it is taken.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class SnapshotExchange implements SimulatorView {
+    /**
+     * The state of the simulation at the end of a step. Only to be read by
+     * the thread which took it, until it takes the next one.
+     */
+    static class Snapshot {
+        // The number of the run, which changes at each reset of the
+        // simulation, and of the snapshot, which grows with every one.
+        private int run;
+        private volatile long sequence;
+        private int step;
+        private final Field field;
+        private FieldStats stats;
+        // The counts of the steps published before this one since the last
+        // snapshot taken, the first of them being snapshot skippedFrom.
+        private final CountHistory skipped = new CountHistory();
+        private long skippedFrom;
+
+        private Snapshot(int depth, int width) {
+            field = new Field(depth, width);
+        }
+
+        int getRun() {
+            return run;
+        }
+
+        int getStep() {
+            return step;
+        }
+
+        /**
+         * @return A copy of the field, whose people are not those of any
+         * population.
+         */
+        Field getField() {
+            return field;
+        }
+
+        FieldStats getStats() {
+            return stats;
+        }
+
+        /**
+         * @return The counts of the steps published since the snapshot
+         * taken before this one, which were not taken themselves.
+         */
+        CountHistory getSkipped() {
+            return skipped;
+        }
+    }
+
+    // The snapshot being filled, only touched by the stepping thread.
+    private Snapshot back;
+    // The latest snapshot published, or one already shown.
+    private final AtomicReference<Snapshot> middle = new AtomicReference<>();
+    // The snapshot being shown, only touched by the showing thread.
+    private Snapshot front;
+    // The numbers of the run and of the last snapshot published, only
+    // touched by the stepping thread.
+    private int run;
+    private long sequence;
+    // The counts of the snapshots published from pendingFrom on, only
+    // touched by the stepping thread.
+    private final CountHistory pending = new CountHistory();
+    private long pendingFrom = 1;
+    // The number of the last snapshot taken, written by the showing thread.
+    private volatile long taken;
+
+    @Override
+    public boolean isViable(FieldStats stats) {
+        return stats.isViable();
+    }
+
+    /**
+     * The field is to log its changes, for the views shown the snapshots.
+     */
+    @Override
+    public boolean wantsChanges() {
+        return true;
+    }
+
+    /**
+     * Copy the field, its last change log and the counts, and publish them
+     * with the counts of the steps published since the last snapshot taken.
+     */
+    @Override
+    public void showStatus(int step, Field field, FieldStats stats) {
+        if (back == null) {
+            back = new Snapshot(field.getDepth(), field.getWidth());
+            middle.set(new Snapshot(field.getDepth(), field.getWidth()));
+        }
+        long seen = taken;
+        if (seen >= pendingFrom) {
+            pending.removeFirst((int) (seen - pendingFrom + 1));
+            pendingFrom = seen + 1;
+        }
+        back.skipped.clear();
+        back.skipped.addAll(pending);
+        back.skippedFrom = pendingFrom;
+        back.field.copyFrom(field);
+        back.stats = stats;
+        back.step = step;
+        back.run = run;
+        back.sequence = ++sequence;
+        pending.add(stats);
+        back = middle.getAndSet(back);
+    }
+
+    /**
+     * Start a new run: the next snapshots are of another run.
+     */
+    @Override
+    public void reset() {
+        run++;
+        pending.clear();
+        pendingFrom = sequence + 1;
+    }
+
+    @Override
+    public void start() {
+        // nothing to show
+    }
+
+    /**
+     * Take the latest snapshot published, in place of the last one taken,
+     * and drop the counts it comes with which were handed over already.
+     * To be called from a single thread.
+     *
+     * @return The latest snapshot, or null if none was published since the
+     * last one taken.
+     */
+    Snapshot take() {
+        Snapshot latest = middle.get();
+        if (latest == null || latest.sequence == 0
+            || front != null && latest.sequence <= front.sequence) {
+            return null;
+        }
+        long last = 0;
+        if (front == null) {
+            // the third snapshot, given to the steps at the next swap
+            front = new Snapshot(latest.field.getDepth(), latest.field.getWidth());
+        } else {
+            last = front.sequence;
+        }
+        front = middle.getAndSet(front);
+        taken = front.sequence;
+        if (last >= front.skippedFrom) {
+            front.skipped.removeFirst((int) (last - front.skippedFrom + 1));
+        }
+        return front;
+    }
+}
@@ -0,0 +1,77 @@
+package pandemic;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The flight recorder event of a simulation step, with the counts at the
+ * end of the step and the time spent in each phase. The duration of the
+ * event is that of the whole step. The phases are only timed while the
+ * event is enabled.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+@Name("pandemic.Step")
+@Label("Simulation Step")
+@Category("Pandemic")
+@Description("One step of the simulation")
+class StepEvent extends jdk.jfr.Event {
+    @Label("Step")
+    int step;
+
+    @Label("Synchronous")
+    boolean synchronous;
+
+    @Label("Population")
+    int population;
+
+    @Label("Active People")
+    @Description("People still stepped, the others can no longer change")
+    int active;
+
+    @Label("Healthy")
+    int healthy;
+
+    @Label("Infected")
+    int infected;
+
+    @Label("Recovered")
+    int recovered;
+
+    @Label("Dead")
+    int dead;
+
+    @Label("Prepare")
+    @Description("Taking the parameters and waking the chunks with disease")
+    @Timespan(Timespan.NANOSECONDS)
+    long prepareDuration;
+
+    @Label("Move")
+    @Description("Moving the people, synchronous steps only")
+    @Timespan(Timespan.NANOSECONDS)
+    long moveDuration;
+
+    @Label("Update")
+    @Description("Infection checks and transitions, and the moves of asynchronous steps")
+    @Timespan(Timespan.NANOSECONDS)
+    long updateDuration;
+
+    @Label("Commit")
+    @Description("Making the new states current, synchronous steps only")
+    @Timespan(Timespan.NANOSECONDS)
+    long commitDuration;
+
+    @Label("Compact")
+    @Description("Retiring the people who can no longer change")
+    @Timespan(Timespan.NANOSECONDS)
+    long compactDuration;
+
+    @Label("Views")
+    @Description("Counting and updating the views")
+    @Timespan(Timespan.NANOSECONDS)
+    long viewsDuration;
+}
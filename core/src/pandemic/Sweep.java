@@ -0,0 +1,213 @@
+package pandemic;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Runs every point of a parameter space a number of times and sums each run
+ * up as it finishes. The runs are spread over a fork/join pool, whose idle
+ * threads steal the pending ones; every thread keeps one simulator of its
+ * own, reset for each run. Replicate r of every point is run from the same
+ * seed, so that the points are compared on the same random numbers.
+ * A run stops after a given number of steps, or earlier once nobody is
+ * infected any more, since nothing can change after that.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class Sweep {
+    private final ParameterSpace space;
+    private final int replicates;
+    private final int steps;
+    // Whether the states are updated synchronously.
+    private boolean synchronous;
+    // Whether the people move around.
+    private boolean moving = true;
+    // The simulator of each thread, kept from one sweep to the next.
+    private final ThreadLocal<Simulator> simulators;
+
+    /**
+     * Prepare a sweep.
+     *
+     * @param depth      Depth of the field.
+     * @param width      Width of the field.
+     * @param space      The points to run.
+     * @param replicates The number of runs of each point.
+     * @param steps      The largest number of steps of a run.
+     */
+    Sweep(int depth, int width, ParameterSpace space, int replicates, int steps) {
+        this.space = space;
+        this.replicates = replicates;
+        this.steps = steps;
+        simulators = ThreadLocal.withInitial(() -> new Simulator(depth, width));
+    }
+
+    /**
+     * @param synchronous Whether the states are updated synchronously.
+     */
+    void setSynchronous(boolean synchronous) {
+        this.synchronous = synchronous;
+    }
+
+    /**
+     * @param moving Whether the people move around.
+     */
+    void setMoving(boolean moving) {
+        this.moving = moving;
+    }
+
+    /**
+     * @return The number of runs of the sweep.
+     */
+    int size() {
+        return space.size() * replicates;
+    }
+
+    /**
+     * Run the sweep. The results are handed over as the runs finish, in no
+     * particular order, from the threads of the pool; the consumer has to
+     * be thread-safe.
+     *
+     * @param seed    The seed of the sweep.
+     * @param pool    The pool to run on.
+     * @param results What to do with the result of each run.
+     */
+    void run(long seed, ForkJoinPool pool, Consumer<Result> results) {
+        pool.invoke(new RunTask(0, size(), seed, results));
+    }
+
+    /**
+     * Run one run on the simulator of the calling thread.
+     *
+     * @param run  The number of the run.
+     * @param seed The seed of the sweep.
+     * @return The summary of the run.
+     */
+    private Result runOne(int run, long seed) {
+        int point = run / replicates;
+        int replicate = run % replicates;
+        long runSeed = Ensemble.seedOf(seed, replicate);
+        Simulator simulator = simulators.get();
+        simulator.setParameters(space.getPoints().get(point));
+        simulator.setSynchronous(synchronous);
+        simulator.setMoving(moving);
+        simulator.setSeed(runSeed);
+        simulator.reset();
+        FieldStats stats = simulator.getStats();
+        int initialHealthy = stats.getPopulationCount(State.HEALTHY);
+        int peakInfected = stats.getPopulationCount(State.INFECTED);
+        int timeToPeak = 0;
+        while (stats.getStep() < steps && stats.getPopulationCount(State.INFECTED) > 0) {
+            simulator.simulateOneStep();
+            stats = simulator.getStats();
+            if (stats.getPopulationCount(State.INFECTED) > peakInfected) {
+                peakInfected = stats.getPopulationCount(State.INFECTED);
+                timeToPeak = stats.getStep();
+            }
+        }
+        double attackRate = initialHealthy == 0 ? 0
+            : (double) (initialHealthy - stats.getPopulationCount(State.HEALTHY)) / initialHealthy;
+        return new Result(point, replicate, runSeed, space.getPoints().get(point),
+            stats.getStep(), peakInfected, timeToPeak, stats.getPopulationCount(State.DEAD),
+            attackRate);
+    }
+
+    /**
+     * The summary of one run.
+     */
+    static class Result {
+        // The point of the space and the replicate which were run.
+        private final int point;
+        private final int replicate;
+        private final long seed;
+        private final SimulationParameters parameters;
+        // The number of steps run, fewer than asked if the disease died out.
+        private final int steps;
+        private final int peakInfected;
+        // The first step the peak was reached at.
+        private final int timeToPeak;
+        private final int finalDead;
+        // The fraction of the people healthy at the start who caught the
+        // disease.
+        private final double attackRate;
+
+        Result(int point, int replicate, long seed, SimulationParameters parameters, int steps,
+               int peakInfected, int timeToPeak, int finalDead, double attackRate) {
+            this.point = point;
+            this.replicate = replicate;
+            this.seed = seed;
+            this.parameters = parameters;
+            this.steps = steps;
+            this.peakInfected = peakInfected;
+            this.timeToPeak = timeToPeak;
+            this.finalDead = finalDead;
+            this.attackRate = attackRate;
+        }
+
+        int getPoint() {
+            return point;
+        }
+
+        int getReplicate() {
+            return replicate;
+        }
+
+        long getSeed() {
+            return seed;
+        }
+
+        SimulationParameters getParameters() {
+            return parameters;
+        }
+
+        int getSteps() {
+            return steps;
+        }
+
+        int getPeakInfected() {
+            return peakInfected;
+        }
+
+        int getTimeToPeak() {
+            return timeToPeak;
+        }
+
+        int getFinalDead() {
+            return finalDead;
+        }
+
+        double getAttackRate() {
+            return attackRate;
+        }
+    }
+
+    /**
+     * Runs a range of runs, splitting it in halves until a single run is
+     * left.
+     */
+    private class RunTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final long seed;
+        private final Consumer<Result> results;
+
+        RunTask(int from, int to, long seed, Consumer<Result> results) {
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RunTask(from, middle, seed, results),
+                    new RunTask(middle, to, seed, results));
+            } else if (to > from) {
+                results.accept(runOne(from, seed));
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package pandemic;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import pandemic.ParameterSpace.Parameter;
+
+/**
+ * Runs a parameter sweep without any view and writes one CSV line per run,
+ * as soon as the run is over, to the standard output or to a file.
+ * The space is either every combination of lists of values (--values), a
+ * Latin hypercube sample of ranges (--range and --samples), or the lines of
+ * a CSV file whose header names the parameters (--points). The parameters
+ * which are not swept take their default values, or those given by --set.
+ * <p>
+ * Usage: java pandemic.SweepRunner [--values name=v1,v2,...]...
+ * [--range name=low:high]... [--samples n] [--points file] [--set name=v]...
+ * [--depth n] [--width n] [--steps n] [--seed n] [--replicates n]
+ * [--threads n] [--synchronous] [--no-movement] [--output file]
+ * <p>
+ * The parameter names are healthy, infected, infection-rate,
+ * infection-duration, mortality-rate and max-contamination.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class SweepRunner {
+    private static final String USAGE = "Usage: java pandemic.SweepRunner"
+        + " [--values name=v1,v2,...]... [--range name=low:high]... [--samples n]"
+        + " [--points file] [--set name=v]... [--depth n] [--width n] [--steps n]"
+        + " [--seed n] [--replicates n] [--threads n] [--synchronous] [--no-movement]"
+        + " [--output file]";
+
+    private int depth = Simulator.DEFAULT_DEPTH;
+    private int width = Simulator.DEFAULT_WIDTH;
+    private int steps = Simulator.ITERATIONS;
+    private long seed = Randomizer.SEED;
+    private int replicates = 1;
+    // The number of threads, 0 for one per processor.
+    private int threads;
+    private boolean synchronous;
+    private boolean moving = true;
+    // The values of the parameters which are not swept.
+    private SimulationParameters base = SimulationParameters.DEFAULT;
+    // The space, by lists of values, by ranges, or from a file.
+    private final Map<Parameter, double[]> values = new LinkedHashMap<>();
+    private final Map<Parameter, double[]> ranges = new LinkedHashMap<>();
+    private int samples;
+    private String points;
+    // The file to write to, or null for the standard output.
+    private String output;
+
+    public static void main(String[] args) {
+        SweepRunner runner = new SweepRunner();
+        try {
+            runner.parse(args);
+            runner.run();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        } catch (UncheckedIOException e) {
+            System.err.println(e.getCause().getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Read the options.
+     *
+     * @param args The command line.
+     * @throws IllegalArgumentException If an option is unknown or its value
+     *                                  is missing, malformed or out of range.
+     */
+    void parse(String[] args) {
+        for (int k = 0; k < args.length; k++) {
+            String option = args[k];
+            switch (option) {
+                case "--synchronous":
+                    synchronous = true;
+                    continue;
+                case "--no-movement":
+                    moving = false;
+                    continue;
+                default:
+                    break;
+            }
+            if (k + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++k];
+            try {
+                switch (option) {
+                    case "--values":
+                        values.put(nameOf(value), numbers(valueOf(value).split(",")));
+                        break;
+                    case "--range":
+                        double[] range = numbers(valueOf(value).split(":"));
+                        if (range.length != 2) {
+                            throw new IllegalArgumentException("Bad range " + value);
+                        }
+                        ranges.put(nameOf(value), range);
+                        break;
+                    case "--samples":
+                        samples = Integer.parseInt(value);
+                        break;
+                    case "--points":
+                        points = value;
+                        break;
+                    case "--set":
+                        base = nameOf(value).set(base, Double.parseDouble(valueOf(value)));
+                        break;
+                    case "--depth":
+                        depth = Integer.parseInt(value);
+                        break;
+                    case "--width":
+                        width = Integer.parseInt(value);
+                        break;
+                    case "--steps":
+                        steps = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--replicates":
+                        replicates = Integer.parseInt(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--output":
+                        output = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad value for " + option + ": " + value);
+            }
+        }
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("The dimensions must be greater than zero.");
+        }
+        if (steps < 0 || replicates <= 0 || threads < 0) {
+            throw new IllegalArgumentException("The steps, replicates and threads must be positive.");
+        }
+        int spaces = (values.isEmpty() ? 0 : 1) + (ranges.isEmpty() ? 0 : 1) + (points == null ? 0 : 1);
+        if (spaces > 1) {
+            throw new IllegalArgumentException("Use only one of --values, --range and --points.");
+        }
+        if (!ranges.isEmpty() && samples <= 0) {
+            throw new IllegalArgumentException("A Latin hypercube needs --samples.");
+        }
+    }
+
+    private static Parameter nameOf(String assignment) {
+        int equals = assignment.indexOf('=');
+        if (equals < 0) {
+            throw new IllegalArgumentException("Expected name=value: " + assignment);
+        }
+        return Parameter.named(assignment.substring(0, equals));
+    }
+
+    private static String valueOf(String assignment) {
+        return assignment.substring(assignment.indexOf('=') + 1);
+    }
+
+    private static double[] numbers(String[] texts) {
+        double[] numbers = new double[texts.length];
+        for (int k = 0; k < texts.length; k++) {
+            numbers[k] = Double.parseDouble(texts[k].trim());
+        }
+        return numbers;
+    }
+
+    /**
+     * Build the space, run the sweep and write the results.
+     *
+     * @throws IOException              If the points cannot be read or the
+     *                                  results cannot be written.
+     * @throws IllegalArgumentException If a point does not make a model.
+     */
+    void run() throws IOException {
+        ParameterSpace space;
+        if (points != null) {
+            space = ParameterSpace.explicit(readPoints());
+        } else if (!ranges.isEmpty()) {
+            space = ParameterSpace.latinHypercube(base, ranges, samples, seed);
+        } else {
+            space = ParameterSpace.cartesian(base, values);
+        }
+        Sweep sweep = new Sweep(depth, width, space, replicates, steps);
+        sweep.setSynchronous(synchronous);
+        sweep.setMoving(moving);
+        ForkJoinPool pool = threads == 0 ? new ForkJoinPool() : new ForkJoinPool(threads);
+        Writer writer = output == null
+            ? new OutputStreamWriter(System.out)
+            : new FileWriter(output);
+        try (BufferedWriter out = new BufferedWriter(writer)) {
+            out.write("point,replicate,seed");
+            for (Parameter parameter : Parameter.values()) {
+                out.write("," + parameter.getName());
+            }
+            out.write(",steps,peak_infected,time_to_peak,final_dead,attack_rate");
+            out.newLine();
+            out.flush();
+            sweep.run(seed, pool, result -> write(out, result));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Read the points from a CSV file: a header of parameter names, then
+     * one line of values per point.
+     *
+     * @return The points.
+     * @throws IOException If the file cannot be read.
+     */
+    private List<SimulationParameters> readPoints() throws IOException {
+        List<SimulationParameters> list = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new FileReader(points))) {
+            String header = in.readLine();
+            if (header == null) {
+                return list;
+            }
+            String[] names = header.split(",");
+            Parameter[] columns = new Parameter[names.length];
+            for (int k = 0; k < names.length; k++) {
+                columns[k] = Parameter.named(names[k].trim());
+            }
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                double[] row = numbers(line.split(","));
+                if (row.length != columns.length) {
+                    throw new IllegalArgumentException("Expected " + columns.length
+                        + " values: " + line);
+                }
+                SimulationParameters point = base;
+                for (int k = 0; k < columns.length; k++) {
+                    point = columns[k].set(point, row[k]);
+                }
+                list.add(point);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Write the line of a run. Called from the threads of the pool as the
+     * runs finish.
+     */
+    private static void write(BufferedWriter out, Sweep.Result result) {
+        StringBuilder line = new StringBuilder();
+        line.append(result.getPoint()).append(',')
+            .append(result.getReplicate()).append(',')
+            .append(result.getSeed());
+        for (Parameter parameter : Parameter.values()) {
+            double value = parameter.get(result.getParameters());
+            line.append(',');
+            if (parameter == Parameter.MAX_CONTAMINATION) {
+                line.append((int) value);
+            } else {
+                line.append(value);
+            }
+        }
+        line.append(',').append(result.getSteps())
+            .append(',').append(result.getPeakInfected())
+            .append(',').append(result.getTimeToPeak())
+            .append(',').append(result.getFinalDead())
+            .append(',').append(result.getAttackRate());
+        synchronized (out) {
+            try {
+                out.write(line.toString());
+                out.newLine();
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
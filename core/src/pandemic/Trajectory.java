@@ -0,0 +1,307 @@
+package pandemic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A trajectory recorded by a TrajectoryRecorder, read through memory
+ * mappings of the file. Only a window of the file is mapped at a time, from
+ * the frame being read on, so that a recording of any length can be played
+ * back. The frames are numbered from 0 in the order they were recorded; any
+ * frame can be loaded onto a field, and the frames following the one last
+ * loaded are loaded by applying their changes alone. A file whose recording
+ * was cut short has no index: the frames are then found by going through
+ * the file, up to the last complete one.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class Trajectory implements AutoCloseable {
+    // Shared copy of the states, values() clones the array on each call.
+    private static final State[] STATES = State.values();
+    // The number of bytes mapped at once, unless a frame needs more.
+    private static final int WINDOW_SIZE = 64 << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    // The part of the file mapped, from windowStart on.
+    private ByteBuffer window;
+    private long windowStart;
+    private final int depth;
+    private final int width;
+    // The step, offset and kind of every frame.
+    private final int frames;
+    private final int[] steps;
+    private final long[] offsets;
+    private final byte[] kinds;
+    private final Inflater inflater = new Inflater();
+    // The packed states of the frame last loaded, and the data of a frame.
+    private final byte[] current;
+    private final byte[] data;
+    // The frame last loaded, -1 if none.
+    private int loaded = -1;
+
+    /**
+     * Open a trajectory file.
+     *
+     * @param file The file.
+     * @throws IOException If the file cannot be read, is not a trajectory or
+     *                     has no frames recorded.
+     */
+    Trajectory(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            size = channel.size();
+            if (size < TrajectoryRecorder.HEADER_SIZE) {
+                throw new IOException(file + " is not a trajectory");
+            }
+            int at = map(0, TrajectoryRecorder.HEADER_SIZE);
+            if (window.getInt(at) != TrajectoryRecorder.MAGIC
+                || window.getInt(at + 4) != TrajectoryRecorder.VERSION) {
+                throw new IOException(file + " is not a trajectory of this version");
+            }
+            depth = window.getInt(at + 8);
+            width = window.getInt(at + 12);
+            if (depth <= 0 || width <= 0) {
+                throw new IOException(file + " is corrupt");
+            }
+            current = new byte[TrajectoryRecorder.packedSize(depth, width)];
+            data = new byte[current.length];
+            long footer = size - TrajectoryRecorder.FOOTER_SIZE;
+            boolean indexed = false;
+            long index = 0;
+            int count = 0;
+            if (footer >= TrajectoryRecorder.HEADER_SIZE) {
+                at = map(footer, TrajectoryRecorder.FOOTER_SIZE);
+                indexed = window.getInt(at + 12) == TrajectoryRecorder.INDEX_MAGIC;
+                index = window.getLong(at);
+                count = window.getInt(at + 8);
+            }
+            if (indexed && (count < 0 || index < TrajectoryRecorder.HEADER_SIZE
+                || index + (long) count * TrajectoryRecorder.INDEX_ENTRY_SIZE != footer)) {
+                throw new IOException(file + " has a corrupt index");
+            }
+            if (!indexed) {
+                count = 0;
+            }
+            int[] steps = new int[Math.max(16, count)];
+            long[] offsets = new long[steps.length];
+            byte[] kinds = new byte[steps.length];
+            if (indexed) {
+                for (int k = 0; k < count; k++) {
+                    at = map(index + (long) k * TrajectoryRecorder.INDEX_ENTRY_SIZE,
+                        TrajectoryRecorder.INDEX_ENTRY_SIZE);
+                    steps[k] = window.getInt(at);
+                    offsets[k] = window.getLong(at + 4);
+                    kinds[k] = window.get(at + 12);
+                }
+            } else {
+                long offset = TrajectoryRecorder.HEADER_SIZE;
+                while (offset + TrajectoryRecorder.FRAME_HEADER_SIZE <= size) {
+                    at = map(offset, TrajectoryRecorder.FRAME_HEADER_SIZE);
+                    int length = window.getInt(at + TrajectoryRecorder.FRAME_HEADER_SIZE - 4);
+                    long end = offset + TrajectoryRecorder.FRAME_HEADER_SIZE + length;
+                    if (length < 0 || end > size) {
+                        break;
+                    }
+                    if (count == steps.length) {
+                        steps = Arrays.copyOf(steps, count * 2);
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                        kinds = Arrays.copyOf(kinds, count * 2);
+                    }
+                    steps[count] = window.getInt(at);
+                    offsets[count] = offset;
+                    kinds[count] = window.get(at + 4);
+                    count++;
+                    offset = end;
+                }
+            }
+            if (count == 0) {
+                throw new IOException(file + " has no frames recorded");
+            }
+            frames = count;
+            this.steps = steps;
+            this.offsets = offsets;
+            this.kinds = kinds;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Make sure some bytes of the file are mapped, mapping the window from
+     * the first of them on if they are not.
+     *
+     * @param start  The offset of the first byte in the file.
+     * @param length The number of bytes.
+     * @return The position of the first byte in the window.
+     * @throws IOException If the bytes are not all in the file.
+     */
+    private int map(long start, int length) throws IOException {
+        if (start < 0 || length < 0 || start + length > size) {
+            throw new IOException("The trajectory is truncated or corrupt at " + start);
+        }
+        if (window == null || start < windowStart
+            || start + length > windowStart + window.capacity()) {
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                Math.min(size - start, Math.max(WINDOW_SIZE, length)));
+            windowStart = start;
+        }
+        return (int) (start - windowStart);
+    }
+
+    int getDepth() {
+        return depth;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The number of frames.
+     */
+    int getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * @return The step the given frame was recorded at.
+     */
+    int getStep(int frame) {
+        return steps[frame];
+    }
+
+    /**
+     * Find the frame of a step.
+     *
+     * @param step A step.
+     * @return The last frame recorded at or before the step, 0 if none.
+     */
+    int frameOf(int step) {
+        int low = 0;
+        int high = frames - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (steps[middle] <= step) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return The counts recorded with the given frame.
+     * @throws IOException If the frame cannot be read.
+     */
+    FieldStats getStats(int frame) throws IOException {
+        int at = map(offsets[frame] + 5, 4 * STATES.length);
+        int[] counts = new int[STATES.length];
+        for (int state = 0; state < counts.length; state++) {
+            counts[state] = window.getInt(at + 4 * state);
+        }
+        return new FieldStats(steps[frame], counts);
+    }
+
+    /**
+     * Put the people of a frame on a field, in place of those of the frame
+     * last loaded. Going forward from that frame only changes the cells
+     * which changed in between; otherwise the frame is rebuilt from the last
+     * keyframe before it. The people on the field have no index in any
+     * population.
+     *
+     * @param frame The frame.
+     * @param field A field of the size of the trajectory, which holds the
+     *              frame last loaded, if any.
+     * @throws IOException If the frame is corrupt.
+     */
+    void load(int frame, Field field) throws IOException {
+        if (frame == loaded) {
+            return;
+        }
+        int from = frame;
+        if (loaded >= 0 && loaded < frame) {
+            from = loaded + 1;
+            for (int k = frame; k > loaded; k--) {
+                if (kinds[k] == TrajectoryRecorder.KEYFRAME) {
+                    from = k;
+                    break;
+                }
+            }
+        } else {
+            while (from > 0 && kinds[from] != TrajectoryRecorder.KEYFRAME) {
+                from--;
+            }
+        }
+        for (int k = from; k <= frame; k++) {
+            apply(k, field);
+        }
+    }
+
+    /**
+     * Apply one frame to the packed states and to the field.
+     */
+    private void apply(int frame, Field field) throws IOException {
+        loaded = -1;
+        int at = map(offsets[frame], TrajectoryRecorder.FRAME_HEADER_SIZE);
+        int deflated = window.getInt(at + TrajectoryRecorder.FRAME_HEADER_SIZE - 4);
+        at = map(offsets[frame] + TrajectoryRecorder.FRAME_HEADER_SIZE, deflated);
+        ByteBuffer input = window.duplicate();
+        input.limit(at + deflated).position(at);
+        inflater.reset();
+        inflater.setInput(input);
+        try {
+            int length = 0;
+            while (length < data.length) {
+                int inflated = inflater.inflate(data, length, data.length - length);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != data.length) {
+                throw new IOException("Frame " + frame + " is truncated");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Frame " + frame + " is corrupt", e);
+        }
+        boolean keyframe = kinds[frame] == TrajectoryRecorder.KEYFRAME;
+        int cells = depth * width;
+        for (int k = 0; k < data.length; k++) {
+            int changed = keyframe ? data[k] ^ current[k] : data[k];
+            if (changed == 0) {
+                continue;
+            }
+            current[k] ^= changed;
+            for (int half = 0; half < 2 && 2 * k + half < cells; half++) {
+                if ((changed >> 4 * half & 0xf) != 0) {
+                    int tag = current[k] >> 4 * half & 0xf;
+                    int cell = field.cell((2 * k + half) / width, (2 * k + half) % width);
+                    if (tag == Field.EMPTY) {
+                        field.clearCell(cell);
+                    } else if (tag <= STATES.length) {
+                        field.place(0, STATES[tag - 1], cell);
+                    } else {
+                        throw new IOException("Frame " + frame + " is corrupt");
+                    }
+                }
+            }
+        }
+        loaded = frame;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+}
@@ -0,0 +1,399 @@
+package pandemic;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Records every step of a simulation to a file, to be looked at again later
+ * without running it. The recorder is a view of the simulation: each step,
+ * the field is packed in half a byte per cell (0 for an empty cell, the
+ * state ordinal plus one otherwise, row by row, the first cell of each pair
+ * in the low half). The packed frame is XORed with the previous one, which
+ * leaves zeros wherever nothing changed, and deflated; every so many frames,
+ * and at the first frame of a run, the frame is deflated as it is instead,
+ * so that any frame can be rebuilt from the last keyframe before it.
+ * <p>
+ * The packing is done in the thread running the steps, the rest in a thread
+ * of its own which streams the frames to the file through an asynchronous
+ * channel, so that the next frame is deflated while the last one is
+ * written. A few packed frames may wait for the encoder; the steps only
+ * wait when all of them do.
+ * <p>
+ * The file starts with a header (magic number, version, depth, width and
+ * keyframe interval), followed by the frames: the step, the kind of frame,
+ * the number of people in each state, the length of the deflated data and
+ * the data. Closing the recorder appends the index of the frames (step,
+ * offset and kind of each) and a footer giving the offset of the index, the
+ * number of frames and a magic number. All numbers are big-endian.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class TrajectoryRecorder implements SimulatorView, AutoCloseable {
+    static final int MAGIC = 0x504e4454; // "PNDT"
+    static final int INDEX_MAGIC = 0x504e4449; // "PNDI"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 5 * 4;
+    static final int FRAME_HEADER_SIZE = 4 + 1 + State.values().length * 4 + 4;
+    static final int INDEX_ENTRY_SIZE = 4 + 8 + 1;
+    static final int FOOTER_SIZE = 8 + 4 + 4;
+    static final byte KEYFRAME = 0;
+    static final byte DELTA = 1;
+    static final int DEFAULT_KEYFRAME_INTERVAL = 100;
+    // The number of packed frames which may wait for the encoder.
+    private static final int BUFFERED_FRAMES = 4;
+    private static final int STATE_COUNT = State.values().length;
+
+    private final int depth;
+    private final int width;
+    private final int keyframeInterval;
+    private final AsynchronousFileChannel channel;
+    private final ExecutorService encoder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trajectory-encoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // The packed frames free to be filled by the steps.
+    private final BlockingQueue<byte[]> free = new ArrayBlockingQueue<>(BUFFERED_FRAMES);
+    // The first failure of the encoder, reported at the next frame.
+    private volatile IOException failure;
+    private boolean closed;
+
+    // The state of the encoder thread, only touched from it.
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private byte[] previous;
+    private final byte[] delta;
+    private ByteBuffer filling;
+    private ByteBuffer writing;
+    // The write in progress, if any, and where its remaining bytes go.
+    private Future<Integer> pendingWrite;
+    private long writingAt;
+    private long position = HEADER_SIZE;
+    private int framesSinceKeyframe;
+    // The index: step, offset and kind of every frame.
+    private int frames;
+    private int[] steps = new int[1024];
+    private long[] offsets = new long[1024];
+    private byte[] kinds = new byte[1024];
+
+    /**
+     * Open a recording of a field of the given size, replacing the file if
+     * it exists.
+     *
+     * @param file             The file to record to.
+     * @param depth            Depth of the field.
+     * @param width            Width of the field.
+     * @param keyframeInterval Every how many frames a keyframe is recorded.
+     * @throws IOException If the file cannot be opened.
+     */
+    TrajectoryRecorder(Path file, int depth, int width, int keyframeInterval) throws IOException {
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("Keyframes must be at least one frame apart.");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.keyframeInterval = keyframeInterval;
+        int packedSize = packedSize(depth, width);
+        for (int k = 0; k < BUFFERED_FRAMES; k++) {
+            free.add(new byte[packedSize]);
+        }
+        delta = new byte[packedSize];
+        // Deflate adds at most 5 bytes per 16 KB block to data it cannot
+        // compress, plus a few for the stream.
+        int frameCapacity = FRAME_HEADER_SIZE + packedSize + packedSize / 1000 + 64;
+        filling = ByteBuffer.allocateDirect(frameCapacity);
+        writing = ByteBuffer.allocateDirect(frameCapacity);
+        channel = AsynchronousFileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(depth).putInt(width).putInt(keyframeInterval);
+        header.flip();
+        try {
+            writeFully(header, 0);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The number of bytes of a frame of the given size, half a byte
+     * per cell.
+     */
+    static int packedSize(int depth, int width) {
+        return (int) (((long) depth * width + 1) / 2);
+    }
+
+    @Override
+    public boolean isViable(FieldStats stats) {
+        return stats.isViable();
+    }
+
+    /**
+     * Record the field as it is at the given step.
+     *
+     * @throws UncheckedIOException If a previous frame could not be written.
+     */
+    @Override
+    public void showStatus(int step, Field field, FieldStats stats) {
+        checkFailure();
+        byte[] packed;
+        try {
+            packed = free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        pack(field, packed);
+        int[] counts = new int[STATE_COUNT];
+        for (State state : State.values()) {
+            counts[state.ordinal()] = stats.getPopulationCount(state);
+        }
+        encoder.execute(() -> {
+            try {
+                if (failure == null) {
+                    encode(step, counts, packed);
+                    return;
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+            // give the frame back, lest the steps wait for it forever
+            if (packed != previous) {
+                free.offer(packed);
+            }
+        });
+    }
+
+    /**
+     * Start the recording over, the next frame being the first of the file.
+     */
+    @Override
+    public void reset() {
+        checkFailure();
+        encoder.execute(() -> {
+            try {
+                rewind();
+            } catch (IOException e) {
+                fail(e);
+            }
+        });
+    }
+
+    @Override
+    public void start() {
+        // nothing to show
+    }
+
+    /**
+     * Wait for the frames to be written, then write the index and close the
+     * file.
+     *
+     * @throws IOException If a frame or the index could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        encoder.execute(() -> {
+            try {
+                finish();
+            } catch (IOException e) {
+                fail(e);
+            }
+        });
+        encoder.shutdown();
+        try {
+            encoder.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        deflater.end();
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Pack the states of the field, two cells per byte.
+     */
+    private void pack(Field field, byte[] packed) {
+        int nibble = 0;
+        int current = 0;
+        int at = 0;
+        for (int row = 0; row < depth; row++) {
+            int cell = field.cell(row, 0);
+            for (int col = 0; col < width; col++, cell++) {
+                int tag = field.getWord(cell) & Field.STATE_MASK;
+                if (nibble == 0) {
+                    current = tag;
+                    nibble = 1;
+                } else {
+                    packed[at++] = (byte) (current | tag << 4);
+                    nibble = 0;
+                }
+            }
+        }
+        if (nibble == 1) {
+            packed[at] = (byte) current;
+        }
+    }
+
+    /**
+     * Encode a packed frame and start writing it. Runs in the encoder
+     * thread.
+     */
+    private void encode(int step, int[] counts, byte[] packed) throws IOException {
+        byte kind = previous == null || framesSinceKeyframe >= keyframeInterval - 1
+            ? KEYFRAME : DELTA;
+        byte[] input = packed;
+        if (kind == DELTA) {
+            for (int k = 0; k < packed.length; k++) {
+                delta[k] = (byte) (packed[k] ^ previous[k]);
+            }
+            input = delta;
+            framesSinceKeyframe++;
+        } else {
+            framesSinceKeyframe = 0;
+        }
+        filling.clear();
+        filling.putInt(step).put(kind);
+        for (int count : counts) {
+            filling.putInt(count);
+        }
+        int lengthAt = filling.position();
+        filling.putInt(0);
+        deflater.reset();
+        deflater.setInput(input);
+        deflater.finish();
+        while (!deflater.finished()) {
+            if (!filling.hasRemaining()) {
+                ByteBuffer larger = ByteBuffer.allocateDirect(filling.capacity() * 2);
+                filling.flip();
+                filling = larger.put(filling);
+            }
+            deflater.deflate(filling);
+        }
+        filling.putInt(lengthAt, filling.position() - lengthAt - 4);
+        filling.flip();
+        if (previous != null) {
+            free.add(previous);
+        }
+        previous = packed;
+        addToIndex(step, position, kind);
+        awaitWrite();
+        ByteBuffer written = writing;
+        writing = filling;
+        filling = written;
+        writingAt = position;
+        position += writing.remaining();
+        pendingWrite = channel.write(writing, writingAt);
+    }
+
+    private void addToIndex(int step, long offset, byte kind) {
+        if (frames == steps.length) {
+            steps = Arrays.copyOf(steps, frames * 2);
+            offsets = Arrays.copyOf(offsets, frames * 2);
+            kinds = Arrays.copyOf(kinds, frames * 2);
+        }
+        steps[frames] = step;
+        offsets[frames] = offset;
+        kinds[frames] = kind;
+        frames++;
+    }
+
+    /**
+     * Wait for the write in progress to finish, going on with it if the
+     * channel only took part of it. Runs in the encoder thread.
+     */
+    private void awaitWrite() throws IOException {
+        if (pendingWrite == null) {
+            return;
+        }
+        while (true) {
+            writingAt += complete(pendingWrite);
+            if (!writing.hasRemaining()) {
+                break;
+            }
+            pendingWrite = channel.write(writing, writingAt);
+        }
+        pendingWrite = null;
+    }
+
+    /**
+     * Drop the frames recorded so far. Runs in the encoder thread.
+     */
+    private void rewind() throws IOException {
+        awaitWrite();
+        if (previous != null) {
+            free.add(previous);
+            previous = null;
+        }
+        frames = 0;
+        position = HEADER_SIZE;
+        channel.truncate(HEADER_SIZE);
+    }
+
+    /**
+     * Write the index and the footer. Runs in the encoder thread.
+     */
+    private void finish() throws IOException {
+        awaitWrite();
+        ByteBuffer index = ByteBuffer.allocate(frames * INDEX_ENTRY_SIZE + FOOTER_SIZE);
+        for (int k = 0; k < frames; k++) {
+            index.putInt(steps[k]).putLong(offsets[k]).put(kinds[k]);
+        }
+        index.putLong(position).putInt(frames).putInt(INDEX_MAGIC);
+        index.flip();
+        writeFully(index, position);
+        channel.force(false);
+    }
+
+    private void writeFully(ByteBuffer buffer, long at) throws IOException {
+        while (buffer.hasRemaining()) {
+            at += complete(channel.write(buffer, at));
+        }
+    }
+
+    private static int complete(Future<Integer> write) throws IOException {
+        try {
+            return write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing the trajectory", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private void fail(IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package pandemic;
+
+
+import java.util.Random;
+
+/**
+ * Determines how a sapiens passes from one state to
+ * its next state depending on a random event happening.
+ * The transitions are those of the compartment model of
+ * the simulation parameters, compiled into lookup tables
+ * (see CompartmentModel).
+ * The probabilities of passing from one state to the next
+ * are determined by a the event.
+ * This class is a non-instantiable utility class
+ * with only static methods.
+ * @author Sahi Gonsangbeu
+ */
+final class Transition {
+
+    // private constructor prevents object creation
+    private Transition() {}
+
+    /**
+     * Determines the next state from the current state and a random event,
+     * with the default parameters.
+     * @param state The current state.
+     * @param event The event which may have happened.
+     * @return The next state.
+     */
+    static State nextState(State state, Event event) {
+        return nextState(SimulationParameters.DEFAULT, state, event, Randomizer.getRandom());
+    }
+
+    /**
+     * Determines the next state from the current state and a random event.
+     * @param parameters The parameters defining the transitions.
+     * @param state The current state.
+     * @param event The event which may have happened.
+     * @param rand The random generator deciding whether the event happened.
+     * @return The next state.
+     */
+    static State nextState(SimulationParameters parameters, State state, Event event,
+                           Random rand) {
+        // don't change state if the model has no outcome for the keys
+        return parameters.getModel().nextState(state, event, rand);
+    }
+
+}
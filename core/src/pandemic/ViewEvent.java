@@ -0,0 +1,28 @@
+package pandemic;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The flight recorder event of a view being updated at the end of a step.
+ * Off by default; once enabled, only one step in so many is recorded, as
+ * set by Simulator.setViewEventInterval().
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+@Name("pandemic.ViewUpdate")
+@Label("View Update")
+@Category("Pandemic")
+@Description("A view showing the status of a step")
+@Enabled(false)
+class ViewEvent extends jdk.jfr.Event {
+    @Label("View")
+    String view;
+
+    @Label("Step")
+    int step;
+}
@@ -0,0 +1,92 @@
+package pandemic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the random streams: a stream only depends on its seed, step,
+ * key and purpose, so that the draws of a person do not depend on who was
+ * stepped before them.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class AgentRandomTest {
+    private static final int DRAWS = 16;
+
+    /**
+     * @return The first numbers of a stream.
+     */
+    private static long[] draw(AgentRandom rand, long seed, int step, int key, int purpose) {
+        rand.reset(seed, step, key, purpose);
+        long[] numbers = new long[DRAWS];
+        for (int k = 0; k < numbers.length; k++) {
+            numbers[k] = rand.nextLong();
+        }
+        return numbers;
+    }
+
+    @Test
+    void streamDoesNotDependOnPreviousDraws() {
+        AgentRandom used = new AgentRandom();
+        draw(used, 3, 9, 1, AgentRandom.MOVE);
+        used.nextDouble();
+        assertArrayEquals(draw(new AgentRandom(), 5, 7, 42, AgentRandom.CHANGE),
+            draw(used, 5, 7, 42, AgentRandom.CHANGE));
+    }
+
+    @Test
+    void streamsDifferByEveryArgument() {
+        AgentRandom rand = new AgentRandom();
+        long[] stream = draw(rand, 5, 7, 42, AgentRandom.CHANGE);
+        assertFalse(Arrays.equals(stream, draw(rand, 6, 7, 42, AgentRandom.CHANGE)));
+        assertFalse(Arrays.equals(stream, draw(rand, 5, 8, 42, AgentRandom.CHANGE)));
+        assertFalse(Arrays.equals(stream, draw(rand, 5, 7, 43, AgentRandom.CHANGE)));
+        assertFalse(Arrays.equals(stream, draw(rand, 5, 7, 42, AgentRandom.MOVE)));
+    }
+
+    @Test
+    void doublesAreInTheUnitInterval() {
+        AgentRandom rand = new AgentRandom().reset(1, 2, 3, AgentRandom.CHANGE);
+        for (int k = 0; k < 10_000; k++) {
+            double value = rand.nextDouble();
+            assertTrue(value >= 0 && value < 1, "draw " + k + ": " + value);
+        }
+    }
+
+    @Test
+    void runsFromTheSameSeedAreTheSame() {
+        Simulator first = simulator(7);
+        Simulator second = simulator(7);
+        Simulator other = simulator(8);
+        for (int step = 0; step < 30; step++) {
+            first.simulateOneStep();
+            second.simulateOneStep();
+            other.simulateOneStep();
+            PopulationTest.assertSameState(first, second);
+        }
+        assertNotEquals(first.getStats().getPopulationDetails(),
+            other.getStats().getPopulationDetails());
+        // a reset starts the same run over
+        first.reset();
+        Simulator again = simulator(7);
+        PopulationTest.assertSameState(again, first);
+    }
+
+    /**
+     * @return A new simulation from the given seed.
+     */
+    private static Simulator simulator(long seed) {
+        Simulator simulator = new Simulator(100, 100);
+        simulator.setParameters(PopulationTest.LONG_EPIDEMIC);
+        simulator.setSeed(seed);
+        simulator.reset();
+        return simulator;
+    }
+}
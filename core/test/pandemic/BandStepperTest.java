@@ -0,0 +1,73 @@
+package pandemic;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the band stepper: as every person draws from their own random
+ * streams, a run gives the same steps whatever the number of threads.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class BandStepperTest {
+    private static final int SIZE = 160;
+    private static final int STEPS = 40;
+
+    /**
+     * @return A new simulation of the test field, run by the given number
+     * of threads.
+     */
+    private static Simulator simulator(boolean synchronous, boolean moving, int parallelism) {
+        Simulator simulator = new Simulator(SIZE, SIZE);
+        simulator.setParameters(PopulationTest.LONG_EPIDEMIC);
+        simulator.setSeed(11);
+        simulator.setSynchronous(synchronous);
+        simulator.setMoving(moving);
+        simulator.setParallelism(parallelism);
+        simulator.reset();
+        return simulator;
+    }
+
+    /**
+     * Run the same simulation with one, two and four threads, and check
+     * that they are the same after every step.
+     */
+    static void assertSameWithAnyThreads(boolean synchronous, boolean moving) {
+        Simulator alone = simulator(synchronous, moving, 1);
+        Simulator[] pooled = {simulator(synchronous, moving, 2), simulator(synchronous, moving, 4)};
+        try {
+            for (int step = 0; step < STEPS; step++) {
+                alone.simulateOneStep();
+                PopulationTest.assertConsistent(alone);
+                for (Simulator simulator : pooled) {
+                    simulator.simulateOneStep();
+                    PopulationTest.assertSameState(alone, simulator);
+                }
+            }
+        } finally {
+            for (Simulator simulator : pooled) {
+                simulator.setParallelism(1);
+            }
+        }
+    }
+
+    @Test
+    void stepsDoNotDependOnThreads() {
+        assertSameWithAnyThreads(false, true);
+    }
+
+    @Test
+    void stepsWithoutMovementDoNotDependOnThreads() {
+        assertSameWithAnyThreads(false, false);
+    }
+
+    @Test
+    void synchronousStepsDoNotDependOnThreads() {
+        assertSameWithAnyThreads(true, true);
+    }
+
+    @Test
+    void synchronousStepsWithoutMovementDoNotDependOnThreads() {
+        assertSameWithAnyThreads(true, false);
+    }
+}
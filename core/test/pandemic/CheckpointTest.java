@@ -0,0 +1,88 @@
+package pandemic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of the checkpoints: a checkpoint read back from its file is the one
+ * written, and a file can be replaced by a new checkpoint once read.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class CheckpointTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * @return A simulation of the test field, run for a few steps.
+     */
+    private static Simulator simulator(int steps) {
+        Simulator simulator = new Simulator(90, 70);
+        simulator.setParameters(PopulationTest.LONG_EPIDEMIC);
+        simulator.setSeed(13);
+        simulator.reset();
+        for (int step = 0; step < steps; step++) {
+            simulator.simulateOneStep();
+        }
+        return simulator;
+    }
+
+    /**
+     * Check that two checkpoints hold the same simulation.
+     */
+    private static void assertSameCheckpoint(Checkpoint expected, Checkpoint actual) {
+        assertEquals(expected.getDepth(), actual.getDepth());
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getStep(), actual.getStep());
+        assertEquals(expected.getSeed(), actual.getSeed());
+        assertEquals(expected.isSynchronous(), actual.isSynchronous());
+        assertEquals(expected.isMoving(), actual.isMoving());
+        assertEquals(expected.getParameters().toString(), actual.getParameters().toString());
+        assertEquals(expected.size(), actual.size());
+        for (int index = 0; index < expected.size(); index++) {
+            assertEquals(expected.getState(index), actual.getState(index), "state " + index);
+            assertEquals(expected.getContamination(index), actual.getContamination(index),
+                "contamination " + index);
+            assertEquals(expected.getRow(index), actual.getRow(index), "row " + index);
+            assertEquals(expected.getCol(index), actual.getCol(index), "col " + index);
+        }
+    }
+
+    @Test
+    void checkpointReadIsTheOneWritten() throws IOException {
+        Checkpoint checkpoint = simulator(12).checkpoint();
+        Path file = directory.resolve("run.ck");
+        checkpoint.write(file);
+        assertSameCheckpoint(checkpoint, Checkpoint.read(file));
+        assertFalse(Files.exists(directory.resolve("run.ck.tmp")));
+    }
+
+    @Test
+    void checkpointReadCanBeReplaced() throws IOException {
+        Path file = directory.resolve("run.ck");
+        simulator(5).checkpoint().write(file);
+        Checkpoint.read(file);
+        Checkpoint later = simulator(9).checkpoint();
+        later.write(file);
+        assertSameCheckpoint(later, Checkpoint.read(file));
+    }
+
+    @Test
+    void truncatedCheckpointIsRejected() throws IOException {
+        Path file = directory.resolve("run.ck");
+        simulator(3).checkpoint().write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+        assertThrows(IOException.class, () -> Checkpoint.read(file));
+    }
+}
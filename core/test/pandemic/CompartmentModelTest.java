@@ -0,0 +1,83 @@
+package pandemic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the compartment model: the infection duration decides when the
+ * disease ends, the mortality rate whether it ends in death.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class CompartmentModelTest {
+    /**
+     * @return A generator always drawing the given double.
+     */
+    private static Random drawing(double value) {
+        return new Random() {
+            @Override
+            public double nextDouble() {
+                return value;
+            }
+        };
+    }
+
+    @Test
+    void infectionDurationDecidesWhenTheDiseaseEnds() {
+        CompartmentModel model = CompartmentModel.of(0.5, 0.25, 0.9);
+        assertEquals(State.RECOVERED,
+            model.nextState(State.INFECTED, Event.INFECTION_DURATION, drawing(0.2)));
+        assertEquals(State.INFECTED,
+            model.nextState(State.INFECTED, Event.INFECTION_DURATION, drawing(0.3)));
+    }
+
+    @Test
+    void mortalityRateDecidesHowTheDiseaseEnds() {
+        CompartmentModel model = CompartmentModel.of(0.5, 0.25, 0.1);
+        assertEquals(State.DEAD,
+            model.nextState(State.INFECTED, Event.MORTALITY_RATE, drawing(0.05)));
+        assertEquals(State.RECOVERED,
+            model.nextState(State.INFECTED, Event.MORTALITY_RATE, drawing(0.5)));
+    }
+
+    @Test
+    void infectionRateDecidesContagion() {
+        CompartmentModel model = CompartmentModel.of(0.5, 0.25, 0.1);
+        assertEquals(State.INFECTED,
+            model.nextState(State.HEALTHY, Event.INFECTION_RATE, drawing(0.4)));
+        assertEquals(State.HEALTHY,
+            model.nextState(State.HEALTHY, Event.INFECTION_RATE, drawing(0.6)));
+        assertTrue(model.isAbsorbing(State.RECOVERED));
+        assertTrue(model.isAbsorbing(State.DEAD));
+    }
+
+    @Test
+    void mortalityRateDecidesTheDeathToll() {
+        int[] dead = new int[3];
+        int[] recovered = new int[3];
+        double[] mortalityRates = {0, 0.5, 1};
+        for (int k = 0; k < mortalityRates.length; k++) {
+            SimulationParameters parameters = new SimulationParameters(0.6, 0.01, 0.33, 0.4,
+                mortalityRates[k], 10);
+            Simulator simulator = new Simulator(100, 100);
+            simulator.setParameters(parameters);
+            simulator.setSeed(7);
+            simulator.reset();
+            for (int step = 0; step < 150; step++) {
+                simulator.simulateOneStep();
+            }
+            dead[k] = simulator.getStats().getPopulationCount(State.DEAD);
+            recovered[k] = simulator.getStats().getPopulationCount(State.RECOVERED);
+        }
+        assertEquals(0, dead[0]);
+        assertEquals(0, recovered[2]);
+        assertTrue(dead[1] > 0 && recovered[1] > 0,
+            "dead " + dead[1] + ", recovered " + recovered[1]);
+        assertTrue(dead[0] < dead[1] && dead[1] < dead[2]);
+    }
+}
@@ -0,0 +1,65 @@
+package pandemic;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the field: the chunks put to sleep are those where nobody can
+ * catch the disease, so that skipping them changes nothing to the steps.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class FieldTest {
+    private static final int SIZE = 120;
+    private static final int STEPS = 60;
+
+    /**
+     * @return A new simulation of the test field, its chunks put to sleep
+     * or not.
+     */
+    private static Simulator simulator(boolean synchronous, boolean moving, boolean sleeping) {
+        Simulator simulator = new Simulator(SIZE, SIZE);
+        simulator.getField().setSleeping(sleeping);
+        // few infected people at first, so that most chunks sleep
+        simulator.setParameters(new SimulationParameters(0.6, 0.002, 0.33, 0.4, 0.1, 10));
+        simulator.setSeed(5);
+        simulator.setSynchronous(synchronous);
+        simulator.setMoving(moving);
+        simulator.reset();
+        return simulator;
+    }
+
+    /**
+     * Run the same simulation with and without sleeping chunks, and check
+     * that they are the same after every step.
+     */
+    private static void assertSameWithoutSleeping(boolean synchronous, boolean moving) {
+        Simulator sleeping = simulator(synchronous, moving, true);
+        Simulator awake = simulator(synchronous, moving, false);
+        for (int step = 0; step < STEPS; step++) {
+            awake.simulateOneStep();
+            sleeping.simulateOneStep();
+            PopulationTest.assertSameState(awake, sleeping);
+        }
+    }
+
+    @Test
+    void sleepingChunksDoNotChangeTheSteps() {
+        assertSameWithoutSleeping(false, true);
+    }
+
+    @Test
+    void sleepingChunksWithoutMovementDoNotChangeTheSteps() {
+        assertSameWithoutSleeping(false, false);
+    }
+
+    @Test
+    void sleepingChunksDoNotChangeSynchronousSteps() {
+        assertSameWithoutSleeping(true, true);
+    }
+
+    @Test
+    void sleepingChunksWithoutMovementDoNotChangeSynchronousSteps() {
+        assertSameWithoutSleeping(true, false);
+    }
+}
@@ -0,0 +1,89 @@
+package pandemic;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests of the population: whatever the steps do, the states of the people
+ * are those shown on the field, and the counts are those of the states.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class PopulationTest {
+    // Parameters keeping the disease around for a few dozen steps.
+    static final SimulationParameters LONG_EPIDEMIC =
+        new SimulationParameters(0.6, 0.01, 0.33, 0.4, 0.1, 10);
+
+    /**
+     * Check that every person is on the field in their own state, and that
+     * the counts add up.
+     *
+     * @param simulator The simulation, between two steps.
+     */
+    static void assertConsistent(Simulator simulator) {
+        Population population = simulator.getPopulation();
+        Field field = simulator.getField();
+        int[] counts = new int[State.values().length];
+        for (int index = 0; index < population.size(); index++) {
+            Location location = population.getLocation(index);
+            State state = population.getState(index);
+            assertEquals(state, field.getStateAt(location.getRow(), location.getCol()),
+                "state of person " + index + " at step " + simulator.getStats().getStep());
+            counts[state.ordinal()]++;
+        }
+        for (State state : State.values()) {
+            assertEquals(counts[state.ordinal()], population.count(state),
+                "count of " + state + " at step " + simulator.getStats().getStep());
+        }
+    }
+
+    /**
+     * Check that two simulations are at the same step with the same people,
+     * in the same states and at the same cells, and the same field.
+     *
+     * @param expected The simulation to compare with.
+     * @param actual   The simulation checked.
+     */
+    static void assertSameState(Simulator expected, Simulator actual) {
+        int step = expected.getStats().getStep();
+        assertEquals(step, actual.getStats().getStep(), "step");
+        Population population = expected.getPopulation();
+        int size = population.size();
+        assertEquals(size, actual.getPopulation().size(), "population at step " + step);
+        byte[][] states = new byte[2][size];
+        int[][] contamination = new int[2][size];
+        int[][] locations = new int[2][size];
+        population.copyTo(states[0], contamination[0], locations[0]);
+        actual.getPopulation().copyTo(states[1], contamination[1], locations[1]);
+        assertArrayEquals(states[0], states[1], "states at step " + step);
+        assertArrayEquals(contamination[0], contamination[1], "contamination at step " + step);
+        assertArrayEquals(locations[0], locations[1], "locations at step " + step);
+        Field field = expected.getField();
+        for (int row = 0; row < field.getDepth(); row++) {
+            for (int col = 0; col < field.getWidth(); col++) {
+                assertEquals(field.getWord(field.cell(row, col)),
+                    actual.getField().getWord(actual.getField().cell(row, col)),
+                    "cell (" + row + ", " + col + ") at step " + step);
+            }
+        }
+    }
+
+    @Test
+    void synchronousStepsSurviveMovementBeingToggled() {
+        Simulator simulator = new Simulator(100, 100);
+        simulator.setParameters(LONG_EPIDEMIC);
+        simulator.setSeed(7);
+        simulator.setSynchronous(true);
+        simulator.reset();
+        for (boolean moving : new boolean[]{true, false, true, false}) {
+            simulator.setMoving(moving);
+            for (int step = 0; step < 10; step++) {
+                simulator.simulateOneStep();
+                assertConsistent(simulator);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package pandemic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests of the simulator: a run carried on from checkpoints gives the same
+ * steps as a run in one go.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class SimulatorTest {
+    private static final int DEPTH = 100;
+    private static final int WIDTH = 100;
+    private static final int STEPS = 80;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * @return A new synchronous simulation of the test field.
+     */
+    private static Simulator simulator(boolean moving) {
+        return simulator(true, moving);
+    }
+
+    /**
+     * @return A new simulation of the test field.
+     */
+    private static Simulator simulator(boolean synchronous, boolean moving) {
+        Simulator simulator = new Simulator(DEPTH, WIDTH);
+        simulator.setParameters(PopulationTest.LONG_EPIDEMIC);
+        simulator.setSeed(7);
+        simulator.setSynchronous(synchronous);
+        simulator.setMoving(moving);
+        simulator.reset();
+        return simulator;
+    }
+
+    /**
+     * Run the steps up to the given one, checking the population after
+     * each, and keep the counts of each step.
+     */
+    private static void runTo(Simulator simulator, int step, List<String> counts) {
+        while (simulator.getStats().getStep() < step) {
+            simulator.simulateOneStep();
+            PopulationTest.assertConsistent(simulator);
+            counts.add(simulator.getStats().getStep() + ": "
+                + simulator.getStats().getPopulationDetails());
+        }
+    }
+
+    /**
+     * Save a simulation to a file and bring it back in a new simulator.
+     */
+    private Simulator resume(Simulator simulator, String name) throws IOException {
+        Path file = directory.resolve(name);
+        simulator.checkpoint().write(file);
+        Simulator resumed = new Simulator(DEPTH, WIDTH);
+        resumed.restore(Checkpoint.read(file));
+        PopulationTest.assertConsistent(resumed);
+        return resumed;
+    }
+
+    private void resumeTwiceSynchronously(boolean moving) throws IOException {
+        List<String> expected = new ArrayList<>();
+        runTo(simulator(moving), STEPS, expected);
+
+        List<String> actual = new ArrayList<>();
+        Simulator simulator = simulator(moving);
+        runTo(simulator, 30, actual);
+        simulator = resume(simulator, "first.ck");
+        runTo(simulator, 31, actual);
+        simulator = resume(simulator, "second.ck");
+        runTo(simulator, STEPS, actual);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void synchronousRunResumedTwiceWithoutMovement() throws IOException {
+        resumeTwiceSynchronously(false);
+    }
+
+    @Test
+    void synchronousRunResumedTwiceWithMovement() throws IOException {
+        resumeTwiceSynchronously(true);
+    }
+
+    /**
+     * Resume a run from a checkpoint of the given step, and check that it
+     * is the same as a run in one go after every following step.
+     */
+    private void assertResumedRunIsTheSame(boolean synchronous, boolean moving, int at)
+        throws IOException {
+        Simulator uninterrupted = simulator(synchronous, moving);
+        Simulator simulator = simulator(synchronous, moving);
+        for (int step = 0; step < at; step++) {
+            uninterrupted.simulateOneStep();
+            simulator.simulateOneStep();
+        }
+        simulator = resume(simulator, "run.ck");
+        PopulationTest.assertSameState(uninterrupted, simulator);
+        for (int step = at; step < STEPS; step++) {
+            uninterrupted.simulateOneStep();
+            simulator.simulateOneStep();
+            PopulationTest.assertSameState(uninterrupted, simulator);
+        }
+    }
+
+    @Test
+    void resumedRunIsTheSame() throws IOException {
+        assertResumedRunIsTheSame(false, true, 20);
+    }
+
+    @Test
+    void resumedRunWithoutMovementIsTheSame() throws IOException {
+        assertResumedRunIsTheSame(false, false, 20);
+    }
+
+    @Test
+    void resumedSynchronousRunIsTheSame() throws IOException {
+        assertResumedRunIsTheSame(true, true, 20);
+    }
+
+    @Test
+    void runResumedFromItsFirstStepIsTheSame() throws IOException {
+        assertResumedRunIsTheSame(false, true, 0);
+    }
+}
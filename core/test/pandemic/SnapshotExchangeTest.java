@@ -0,0 +1,104 @@
+package pandemic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests of the snapshot exchange: whatever snapshots are skipped, the counts
+ * of every step published reach the showing thread, in order.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class SnapshotExchangeTest {
+    private static final int SIZE = 8;
+    private static final int STEPS = 100_000;
+
+    private final Field field = new Field(SIZE, SIZE);
+
+    private void publish(SnapshotExchange exchange, int step) {
+        int[] counts = new int[State.values().length];
+        counts[State.HEALTHY.ordinal()] = step;
+        exchange.showStatus(step, field, new FieldStats(step, counts));
+    }
+
+    /**
+     * @return The steps of a snapshot taken: the skipped ones, then its own.
+     */
+    private static List<Integer> steps(SnapshotExchange.Snapshot snapshot) {
+        List<Integer> steps = new ArrayList<>();
+        CountHistory skipped = snapshot.getSkipped();
+        for (int point = 0; point < skipped.size(); point++) {
+            assertEquals(skipped.getStep(point), skipped.getCount(State.HEALTHY, point));
+            steps.add(skipped.getStep(point));
+        }
+        steps.add(snapshot.getStep());
+        return steps;
+    }
+
+    @Test
+    void skippedStepsComeWithTheNextSnapshot() {
+        SnapshotExchange exchange = new SnapshotExchange();
+        assertNull(exchange.take());
+        for (int step = 0; step < 4; step++) {
+            publish(exchange, step);
+        }
+        assertEquals(List.of(0, 1, 2, 3), steps(exchange.take()));
+        assertNull(exchange.take());
+        publish(exchange, 4);
+        assertEquals(List.of(4), steps(exchange.take()));
+        publish(exchange, 5);
+        publish(exchange, 6);
+        assertEquals(List.of(5, 6), steps(exchange.take()));
+    }
+
+    @Test
+    void resetForgetsTheSkippedSteps() {
+        SnapshotExchange exchange = new SnapshotExchange();
+        for (int step = 0; step < 3; step++) {
+            publish(exchange, step);
+        }
+        exchange.reset();
+        publish(exchange, 0);
+        publish(exchange, 1);
+        SnapshotExchange.Snapshot snapshot = exchange.take();
+        assertEquals(1, snapshot.getRun());
+        assertEquals(List.of(0, 1), steps(snapshot));
+    }
+
+    /**
+     * Publish steps in one thread while taking them in another, and check
+     * that every step is seen exactly once.
+     */
+    @Test
+    void everyStepReachesTheShowingThread() throws InterruptedException {
+        SnapshotExchange exchange = new SnapshotExchange();
+        Thread worker = new Thread(() -> {
+            for (int step = 0; step < STEPS; step++) {
+                publish(exchange, step);
+            }
+        });
+        worker.start();
+        List<Integer> seen = new ArrayList<>();
+        while (worker.isAlive()) {
+            SnapshotExchange.Snapshot snapshot = exchange.take();
+            if (snapshot != null) {
+                seen.addAll(steps(snapshot));
+            }
+        }
+        worker.join();
+        SnapshotExchange.Snapshot snapshot = exchange.take();
+        if (snapshot != null) {
+            seen.addAll(steps(snapshot));
+        }
+        assertEquals(STEPS, seen.size());
+        for (int step = 0; step < STEPS; step++) {
+            assertEquals(step, seen.get(step).intValue());
+        }
+    }
+}
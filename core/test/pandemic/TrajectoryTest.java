@@ -0,0 +1,164 @@
+package pandemic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of the trajectories: every frame read back from a recording is the
+ * field as it was at its step, whatever order the frames are read in.
+ *
+ * @author Sahi Gonsangbeu
+ * @version 2026.10.18
+ */
+class TrajectoryTest {
+    private static final int DEPTH = 70;
+    private static final int WIDTH = 90;
+    private static final int STEPS = 50;
+    private static final int KEYFRAME_INTERVAL = 7;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Keeps the states of the field at every step, a tag per cell.
+     */
+    private static class Grids implements SimulatorView {
+        private final List<byte[]> grids = new ArrayList<>();
+        private final List<FieldStats> stats = new ArrayList<>();
+
+        @Override
+        public boolean isViable(FieldStats stats) {
+            return true;
+        }
+
+        @Override
+        public void showStatus(int step, Field field, FieldStats stats) {
+            grids.add(tags(field));
+            this.stats.add(stats);
+        }
+
+        @Override
+        public void reset() {
+            grids.clear();
+            stats.clear();
+        }
+
+        @Override
+        public void start() {
+            // nothing to show
+        }
+    }
+
+    /**
+     * @return The state tag of every cell of a field, row by row.
+     */
+    private static byte[] tags(Field field) {
+        byte[] tags = new byte[field.getDepth() * field.getWidth()];
+        for (int row = 0; row < field.getDepth(); row++) {
+            for (int col = 0; col < field.getWidth(); col++) {
+                tags[row * field.getWidth() + col] =
+                    (byte) (field.getWord(field.cell(row, col)) & Field.STATE_MASK);
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Record a run, with movement, and keep its fields.
+     */
+    private Grids record(Path file) throws IOException {
+        Grids grids = new Grids();
+        try (TrajectoryRecorder recorder =
+                 new TrajectoryRecorder(file, DEPTH, WIDTH, KEYFRAME_INTERVAL)) {
+            Simulator simulator = new Simulator(DEPTH, WIDTH, grids, recorder);
+            simulator.setParameters(PopulationTest.LONG_EPIDEMIC);
+            simulator.setSeed(3);
+            simulator.reset();
+            for (int step = 0; step < STEPS; step++) {
+                simulator.simulateOneStep();
+            }
+        }
+        return grids;
+    }
+
+    /**
+     * Check that a frame of a trajectory is the field recorded at its step.
+     */
+    private static void assertFrame(Grids grids, Trajectory trajectory, int frame, Field field)
+        throws IOException {
+        trajectory.load(frame, field);
+        int step = trajectory.getStep(frame);
+        assertArrayEquals(grids.grids.get(step), tags(field), "frame " + frame);
+        FieldStats stats = trajectory.getStats(frame);
+        for (State state : State.values()) {
+            assertEquals(grids.stats.get(step).getPopulationCount(state),
+                stats.getPopulationCount(state), state + " at frame " + frame);
+        }
+    }
+
+    @Test
+    void everyFrameIsTheFieldRecorded() throws IOException {
+        Path file = directory.resolve("run.trj");
+        Grids grids = record(file);
+        try (Trajectory trajectory = new Trajectory(file)) {
+            assertEquals(STEPS + 1, trajectory.getFrameCount());
+            Field field = new Field(DEPTH, WIDTH);
+            for (int frame = 0; frame < trajectory.getFrameCount(); frame++) {
+                assertEquals(frame, trajectory.getStep(frame));
+                assertFrame(grids, trajectory, frame, field);
+            }
+            // backwards and at random, through the keyframes
+            for (int frame = trajectory.getFrameCount() - 1; frame >= 0; frame--) {
+                assertFrame(grids, trajectory, frame, field);
+            }
+            Random rand = new Random(1);
+            for (int k = 0; k < 100; k++) {
+                assertFrame(grids, trajectory, rand.nextInt(trajectory.getFrameCount()), field);
+            }
+        }
+    }
+
+    @Test
+    void recordingCutShortKeepsItsCompleteFrames() throws IOException {
+        Path file = directory.resolve("run.trj");
+        Grids grids = record(file);
+        int frames;
+        try (Trajectory trajectory = new Trajectory(file)) {
+            frames = trajectory.getFrameCount();
+        }
+        // drop the index, the footer and the end of the last frame
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - TrajectoryRecorder.FOOTER_SIZE
+                - (long) frames * TrajectoryRecorder.INDEX_ENTRY_SIZE - 1);
+        }
+        try (Trajectory trajectory = new Trajectory(file)) {
+            assertEquals(frames - 1, trajectory.getFrameCount());
+            Field field = new Field(DEPTH, WIDTH);
+            for (int frame = 0; frame < trajectory.getFrameCount(); frame++) {
+                assertFrame(grids, trajectory, frame, field);
+            }
+        }
+    }
+
+    @Test
+    void recordingWithoutFramesIsRejected() throws IOException {
+        Path file = directory.resolve("empty.trj");
+        new TrajectoryRecorder(file, DEPTH, WIDTH, KEYFRAME_INTERVAL).close();
+        IOException e = assertThrows(IOException.class, () -> new Trajectory(file));
+        assertEquals(file + " has no frames recorded", e.getMessage());
+    }
+}
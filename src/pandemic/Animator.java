@@ -7,13 +7,25 @@ import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.management.JMException;
+
 /**
  * Animation timer for pandemic simulation.
  * GUI via JavaFX.
- * Simulator actually manages the simulation.
+ * Simulator actually manages the simulation, in a thread of its own, and
+ * publishes the end of each step through a SnapshotExchange; each time
+ * event shows the latest step published, if new, after telling the views
+ * the counts of the steps skipped since the last one shown. The steps thus
+ * go as fast as the speed set on the controls allows, whatever the display
+ * does, and the display never waits for a step.
+ * With --replay=file, a recorded trajectory is played back to the views
+ * instead, at the speed set on the controls.
  *
  * @author Peter Sander
  */
@@ -22,16 +34,28 @@ public class Animator extends Application {
     private Controls controls;
     private final List<SimulatorView> views = new ArrayList<>();
     private AnimationTimer timer;
-    private long zzz;
+    // The thread running the steps, the latest steps it published and the
+    // gate it goes through before each step.
+    private Thread worker;
+    private final SnapshotExchange exchange = new SnapshotExchange();
+    private final EngineMonitor monitor = new EngineMonitor();
+    // The run of the snapshot last shown.
+    private int shownRun;
     private pandemic.Field field;
     private int step;
+    // The trajectory played back, if any, and where the playback is, in
+    // frames.
+    private Trajectory trajectory;
+    private Replay replay;
+    private double position;
 
     /**
      * 1. Creates an Animator instance.
      * 2. Calls its init method.
      * 3. Calls its start method in the FX application thread.
      *
-     * @param args Complete class names of simulation views to instantiate.
+     * @param args Complete class names of simulation views to instantiate,
+     *             and --replay=file to play a trajectory back.
      */
     public static void main(String... args) {
         Application.launch(args);
@@ -42,13 +66,17 @@ public class Animator extends Application {
      * Bit of a hack to get around the checked exceptions.
      */
     @Override
-    public void init() {
+    public void init() throws IOException {
+        String file = getParameters().getNamed().get("replay");
+        if (file != null) {
+            trajectory = new Trajectory(Paths.get(file));
+        }
         controls = new Controls();
         views.add(controls);
         getParameters().getUnnamed().forEach(name
                 -> {
                 try {
-                    views.add((SimulatorView) Class.forName(name).newInstance());
+                    views.add(instantiate(Class.forName(name)));
                 } catch (Exception e) {
                     System.out.println("WHOOPSIhE! Careful with that cast, Eugene");
                 }
@@ -56,33 +84,147 @@ public class Animator extends Application {
         );
     }
 
+    /**
+     * Instantiates a view, of the size of the trajectory played back if it
+     * has a constructor taking the depth and width.
+     */
+    private SimulatorView instantiate(Class<?> viewClass) throws ReflectiveOperationException {
+        if (trajectory != null) {
+            try {
+                return (SimulatorView) viewClass.getDeclaredConstructor(int.class, int.class)
+                    .newInstance(trajectory.getDepth(), trajectory.getWidth());
+            } catch (NoSuchMethodException e) {
+                // the view does not care about the size
+            }
+        }
+        return (SimulatorView) viewClass.getDeclaredConstructor().newInstance();
+    }
+
     /**
      * Sets up and runs animation timer.
      * Calls one simulation step at each time event.
      */
     @Override
     public void start(Stage primaryStage) {
+        if (trajectory != null) {
+            startReplay();
+            return;
+        }
         views.forEach(v -> v.start());
-        simulator = new Simulator(views.toArray(new SimulatorView[0]));
+        simulator = new Simulator(exchange, monitor);
+        monitor.setSimulator(simulator);
+        try {
+            monitor.register("animator");
+        } catch (JMException e) {
+            System.out.println("Cannot publish the simulation through JMX: " + e.getMessage());
+        }
+        controls.setSimulator(simulator);
+        controls.setMonitor(monitor);
         if (timer == null) {
             timer = new AnimationTimer() {
                 @Override
                 public void handle(long now) {
-                    // trying to slow down the display
-                    try {
-                        zzz = controls.getSpeed();
-                        Thread.sleep(controls.getSpeed());
-                    } catch (InterruptedException e) {
+                    SnapshotExchange.Snapshot snapshot = exchange.take();
+                    if (snapshot == null) {
+                        return;
                     }
-                    step = simulator.simulateOneStep();
-                    if (!simulator.isViable(step)) {
-                        stop();
-                        System.out.println("Animation stopped");
+                    if (snapshot.getRun() != shownRun) {
+                        shownRun = snapshot.getRun();
+                        views.forEach(SimulatorView::reset);
+                    }
+                    for (SimulatorView view : views) {
+                        view.showSkipped(snapshot.getSkipped());
+                        view.showStatus(snapshot.getStep(), snapshot.getField(),
+                            snapshot.getStats());
                     }
                 }
             };
-            controls.setTimer(timer);
         }
         timer.start();
+        worker = new Thread(this::runSimulation, "simulation");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Runs the steps until the simulation is over, waiting for the controls
+     * between them. Runs in the worker thread.
+     */
+    private void runSimulation() {
+        try {
+            do {
+                monitor.awaitTurn();
+                // trying to slow down the simulation
+                long delay = controls.getSpeed();
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
+                step = simulator.simulateOneStep();
+            } while (simulator.isViable(step));
+            System.out.println("Animation stopped");
+        } catch (InterruptedException e) {
+            // quitting
+        }
+    }
+
+    /**
+     * Sets up the playback of the trajectory. At each time event, the
+     * playback moves on by the time since the last one times the speed, and
+     * carries on from wherever the controls were scrubbed to.
+     */
+    private void startReplay() {
+        replay = new Replay(trajectory, views.toArray(new SimulatorView[0]));
+        controls.setReplay(replay);
+        views.forEach(v -> v.start());
+        replay.show(0);
+        timer = new AnimationTimer() {
+            // The time of the last event, 0 if the playback was stopped.
+            private long last;
+
+            @Override
+            public void handle(long now) {
+                double elapsed = last == 0 ? 0 : (now - last) / 1e9;
+                last = now;
+                if ((int) position != replay.getFrame()) {
+                    position = replay.getFrame();
+                }
+                int lastFrame = trajectory.getFrameCount() - 1;
+                position = Math.max(0, Math.min(lastFrame,
+                    position + elapsed * controls.getReplaySpeed()));
+                try {
+                    replay.show((int) position);
+                } catch (UncheckedIOException e) {
+                    System.out.println(e.getCause().getMessage());
+                    stop();
+                }
+                if (position == lastFrame && controls.getReplaySpeed() > 0
+                    || position == 0 && controls.getReplaySpeed() < 0) {
+                    stop();
+                }
+            }
+
+            @Override
+            public void stop() {
+                super.stop();
+                last = 0;
+            }
+        };
+        controls.setTimer(timer);
+        timer.start();
+    }
+
+    @Override
+    public void stop() throws IOException {
+        if (worker != null) {
+            worker.interrupt();
+        }
+        try {
+            monitor.unregister();
+        } catch (JMException e) {
+            // the JVM is about to exit anyway
+        }
+        if (trajectory != null) {
+            trajectory.close();
+        }
     }
 }
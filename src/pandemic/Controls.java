@@ -13,18 +13,30 @@ import javafx.scene.control.Slider;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
-import javafx.scene.paint.Color;
 import javafx.stage.Stage;
-import static pandemic.Event.*;
 
 /**
- * Simulation controls.
+ * Simulation controls. When a recorded run is played back, the parameters
+ * make way for a slider to scrub through the steps and the playback speed.
  *
  * @author Peter Sander
  */
 class Controls implements SimulatorView {
     Slider speedSlider;
     private AnimationTimer timer;
+    private Simulator simulator;
+    // The gate of the thread running the steps, if they are not run by the
+    // timer.
+    private EngineMonitor monitor;
+    // The delay between two steps in msecs, read by the thread running them.
+    private volatile long speed = 500;
+    // The playback, if any, its scrubber and speed.
+    private Replay replay;
+    private Slider scrubber;
+    private TextField replaySpeed;
+    // Whether the scrubber is being moved to the frame shown, rather than
+    // by the user.
+    private boolean following;
 
     @Override
     public void start() {
@@ -38,6 +50,10 @@ class Controls implements SimulatorView {
         VBox main=new VBox();
         main.setPrefWidth(500);
         main.setSpacing(5);
+        if (replay != null) {
+            main.getChildren().addAll(createReplayContent(main), createButtons(main));
+            return main;
+        }
 
         HBox parametre1 = new HBox();
         HBox parametre2 = new HBox();
@@ -55,12 +71,13 @@ class Controls implements SimulatorView {
 
 
 
-        TextField texte1 = new TextField(String.valueOf(Simulator.HEALTHY_CREATION_PROBABILITY));
-        TextField texte2 = new TextField(String.valueOf(Simulator.INFECTED_CREATION_PROBABILITY));
-        TextField texte3 = new TextField(String.valueOf(INFECTION_RATE.probability));
-        TextField texte4 = new TextField(String.valueOf(INFECTION_DURATION.probability));
-        TextField texte5 = new TextField(String.valueOf(MORTALITY_RATE));
-        TextField texte6 = new TextField(String.valueOf(Human.MAX_CONTAMINATION));
+        SimulationParameters parameters = SimulationParameters.DEFAULT;
+        TextField texte1 = new TextField(String.valueOf(parameters.getHealthyCreationProbability()));
+        TextField texte2 = new TextField(String.valueOf(parameters.getInfectedCreationProbability()));
+        TextField texte3 = new TextField(String.valueOf(parameters.getInfectionRate()));
+        TextField texte4 = new TextField(String.valueOf(parameters.getInfectionDuration()));
+        TextField texte5 = new TextField(String.valueOf(parameters.getMortalityRate()));
+        TextField texte6 = new TextField(String.valueOf(parameters.getMaxContamination()));
 
         Button Btn1 = new Button("Healthy probability");
         Button Btn2 = new Button("Infected probability");
@@ -97,25 +114,18 @@ class Controls implements SimulatorView {
         change.setAlignment(Pos.CENTER);
         Button changes = new Button("save changes");
         changes.setOnAction(actionEvent -> {
-            Simulator.setHealthyCreationProbability(Double.parseDouble(texte1.getText()));
-            Simulator.setInfectedCreationProbability(Double.parseDouble(texte2.getText()));
-            INFECTION_RATE.probability=Double.parseDouble(texte3.getText());
-            INFECTION_DURATION.probability=Double.parseDouble(texte4.getText());
-            MORTALITY_RATE.probability=Double.parseDouble(texte5.getText());
-            Human.setMaxContamination(Integer.parseInt(texte6.getText()));
+            // published as a whole, the simulator picks it up at its next step
+            simulator.setParameters(new SimulationParameters(
+                Double.parseDouble(texte1.getText()),
+                Double.parseDouble(texte2.getText()),
+                Double.parseDouble(texte3.getText()),
+                Double.parseDouble(texte4.getText()),
+                Double.parseDouble(texte5.getText()),
+                Integer.parseInt(texte6.getText())));
         });
         change.getChildren().add(changes);
 
 
-        HBox root = new HBox();
-
-        root.setAlignment(Pos.CENTER);
-        Button startBtn = new Button("Start");
-        startBtn.setOnAction(evt -> timer.start());
-        Button pauseBtn = new Button("Pause");
-        pauseBtn.setOnAction(evt -> timer.stop());
-
-
         HBox speedBox = new HBox();
         speedBox.setAlignment(Pos.CENTER);
         speedSlider = new Slider(0, 1, 0.5);  // in secs
@@ -124,6 +134,59 @@ class Controls implements SimulatorView {
         speedSlider.setMajorTickUnit(0.25f);
         speedSlider.setBlockIncrement(0.1f);
         speedBox.getChildren().addAll(new Label("Slow"), speedSlider, new Label("Fast"));
+        speedSlider.valueProperty().addListener((observable, oldValue, newValue)
+            -> speed = 1000 - (long) (1000 * newValue.doubleValue()));
+
+        main.getChildren().addAll(parametre1,parametre2,parametre3,parametre4,parametre5,parametre6,change,createButtons(main),speedBox);
+
+        return main;
+    }
+
+    /**
+     * The scrubber and the speed of the playback.
+     */
+    private Parent createReplayContent(VBox main) {
+        Trajectory trajectory = replay.getTrajectory();
+        scrubber = new Slider(0, Math.max(0, trajectory.getFrameCount() - 1), 0);
+        scrubber.setMinWidth(main.getPrefWidth() * 3 / 4);
+        scrubber.valueProperty().addListener((observable, oldValue, newValue) -> {
+            if (!following) {
+                replay.show(newValue.intValue());
+            }
+        });
+        replaySpeed = new TextField("30");
+        replaySpeed.setPrefColumnCount(5);
+        HBox speedBox = new HBox(5, new Label("Steps per second"), replaySpeed);
+        speedBox.setAlignment(Pos.CENTER);
+        HBox scrubBox = new HBox(5, new Label("Step"), scrubber);
+        scrubBox.setAlignment(Pos.CENTER);
+        return new VBox(5, scrubBox, speedBox);
+    }
+
+    /**
+     * The start, pause and quit buttons.
+     */
+    private Parent createButtons(VBox main) {
+        HBox root = new HBox();
+
+        root.setAlignment(Pos.CENTER);
+        Button startBtn = new Button("Start");
+        startBtn.setOnAction(evt -> {
+            if (monitor != null) {
+                monitor.resume();
+            } else {
+                timer.start();
+            }
+        });
+        Button pauseBtn = new Button("Pause");
+        pauseBtn.setOnAction(evt -> {
+            if (monitor != null) {
+                monitor.pause();
+            } else {
+                timer.stop();
+            }
+        });
+
         Button quitBtn = new Button("Quit");
         quitBtn.setOnAction(evt -> Platform.exit());
 
@@ -134,32 +197,60 @@ class Controls implements SimulatorView {
 
 
         root.getChildren().addAll(startBtn,pauseBtn,quitBtn);
-        main.getChildren().addAll(parametre1,parametre2,parametre3,parametre4,parametre5,parametre6,change,root,speedBox);
-
-        return main;
+        return root;
     }
 
     void setTimer(AnimationTimer timer) {
         this.timer = timer;
     }
 
+    void setSimulator(Simulator simulator) {
+        this.simulator = simulator;
+    }
+
+    void setMonitor(EngineMonitor monitor) {
+        this.monitor = monitor;
+    }
+
     /**
-     * Converts speed reading from secs to msecs.
+     * Switch the controls to the playback of a recorded run. To be called
+     * before start().
      */
-    long getSpeed() {
-        return 1000 - (long) (1000 * speedSlider.getValue());
+    void setReplay(Replay replay) {
+        this.replay = replay;
     }
 
-    @Override
-    public void setColor(State state, Color color) {
+    /**
+     * @return The playback speed in steps per second, negative to play
+     * backwards, 0 if not a number.
+     */
+    double getReplaySpeed() {
+        try {
+            return Double.parseDouble(replaySpeed.getText());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Converts speed reading from secs to msecs. May be called from any
+     * thread.
+     */
+    long getSpeed() {
+        return speed;
     }
 
     @Override
-    public void showStatus(int step, Field field) {
+    public void showStatus(int step, Field field, FieldStats stats) {
+        if (scrubber != null) {
+            following = true;
+            scrubber.setValue(replay.getFrame());
+            following = false;
+        }
     }
 
     @Override
-    public boolean isViable(Field field) {
+    public boolean isViable(FieldStats stats) {
         return true;
     }
 
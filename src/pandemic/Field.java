@@ -1,198 +0,0 @@
-package pandemic;
-
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Random;
-
-/**
- * Represent a rectangular grid of field positions. Each position is able to
- * store a single people.
- *
- * @author Sahi Gonsangbeu
- * @version 2021.04.07
- */
-class Field {
-    // A random number generator for providing random locations.
-    private static final Random rand = Randomizer.getRandom();
-
-    // The depth and width of the field.
-    private final int depth;
-    private final int width;
-    // Storage for the animals.
-    private final Human[][] field;
-
-    /**
-     * Represent a field of the given dimensions.
-     *
-     * @param depth The depth of the field.
-     * @param width The width of the field.
-     */
-    Field(int depth, int width) {
-        this.depth = depth;
-        this.width = width;
-        field = new Human[depth][width];
-    }
-
-    /**
-     * Empty the field.
-     */
-    void clear() {
-        for (int row = 0; row < depth; row++) {
-            for (int col = 0; col < width; col++) {
-                field[row][col] = null;
-            }
-        }
-    }
-
-    /**
-     * Clear the given location.
-     *
-     * @param location The location to clear.
-     */
-    void clear(Location location) {
-        field[location.getRow()][location.getCol()] = null;
-    }
-
-    /**
-     * Place a people at the given location. If there is already another people at
-     * the location it will be lost.
-     *
-     * @param human The animal to be placed.
-     * @param row    Row coordinate of the location.
-     * @param col    Column coordinate of the location.
-     */
-    void place(Human human, int row, int col) {
-        place(human, new Location(row, col));
-    }
-
-    /**
-     * Place an animal at the given location. If there is already an animal at
-     * the location it will be lost.
-     *
-     * @param human   The animal to be placed.
-     * @param location Where to place the animal.
-     */
-    void place(Human human, Location location) {
-        field[location.getRow()][location.getCol()] = human;
-    }
-
-    /**
-     * Return the animal at the given location, if any.
-     *
-     * @param location Where in the field.
-     * @return The animal at the given location, or null if there is none.
-     */
-    Human getPeopleAt(Location location) {
-        return getPeopleAt(location.getRow(), location.getCol());
-    }
-
-    /**
-     * Return the people at the given location, if any.
-     *
-     * @param row The desired row.
-     * @param col The desired column.
-     * @return The animal at the given location, or null if there is none.
-     */
-    Human getPeopleAt(int row, int col) {
-        return field[row][col];
-    }
-
-    /**
-     * Generate a random location that is adjacent to the given location, or is
-     * the same location. The returned location will be within the valid bounds
-     * of the field.
-     *
-     * @param location The location from which to generate an adjacency.
-     * @return A valid location within the grid area.
-     */
-    Location randomAdjacentLocation(Location location) {
-        List<Location> adjacent = adjacentLocations(location);
-        return adjacent.get(0);
-    }
-
-    /**
-     * Get a shuffled list of the free adjacent locations.
-     *
-     * @param location Get locations adjacent to this.
-     * @return A list of free adjacent locations.
-     */
-    List<Location> getFreeAdjacentLocations(Location location) {
-        List<Location> free = new LinkedList<>();
-        List<Location> adjacent = adjacentLocations(location);
-        for (Location next : adjacent) {
-            if (getPeopleAt(next) == null) {
-                free.add(next);
-            }
-        }
-        return free;
-    }
-
-    /**
-     * Try to find a free location that is adjacent to the given location. If
-     * there is none, return null. The returned location will be within the
-     * valid bounds of the field.
-     *
-     * @param location The location from which to generate an adjacency.
-     * @return A valid location within the grid area.
-     */
-    Location freeAdjacentLocation(Location location) {
-        // The available free ones.
-        List<Location> free = getFreeAdjacentLocations(location);
-        return free.size() > 0 ? free.get(0) : null;
-    }
-
-    /**
-     * Return a shuffled list of locations adjacent to the given one. The list
-     * will not include the location itself. All locations will lie within the
-     * grid.
-     *
-     * @param location The location from which to generate adjacencies.
-     * @return A list of locations adjacent to that given.
-     */
-    List<Location> adjacentLocations(Location location) {
-        assert location != null : "Null location passed to adjacentLocations";
-        // The list of locations to be returned.
-        List<Location> locations = new LinkedList<>();
-        if (location != null) {
-            int row = location.getRow();
-            int col = location.getCol();
-            for (int roffset = -1; roffset <= 1; roffset++) {
-                int nextRow = row + roffset;
-                if (nextRow >= 0 && nextRow < depth) {
-                    for (int coffset = -1; coffset <= 1; coffset++) {
-                        int nextCol = col + coffset;
-                        // Exclude invalid locations and the original location.
-                        if (nextCol >= 0 && nextCol < width
-                            && (roffset != 0 || coffset != 0)) {
-                            locations.add(new Location(nextRow, nextCol));
-                        }
-                    }
-                }
-            }
-
-            // Shuffle the list. Several other methods rely on the list
-            // being in a random order.
-            Collections.shuffle(locations, rand);
-        }
-        return locations;
-    }
-
-    /**
-     * Return the depth of the field.
-     *
-     * @return The depth of the field.
-     */
-    int getDepth() {
-        return depth;
-    }
-
-    /**
-     * Return the width of the field.
-     *
-     * @return The width of the field.
-     */
-    int getWidth() {
-        return width;
-    }
-}
@@ -1,5 +1,6 @@
 package pandemic;
 
+import javafx.collections.ObservableList;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -11,8 +12,10 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -21,6 +24,9 @@ import java.util.Set;
  * line graph over time. In its current version, it can only plot exactly two
  * different classes of animals. If further animals are introduced, they will
  * not currently be displayed.
+ * The counts of every step of the run are kept, and the curves always show
+ * the whole run with at most MAX_POINTS points each, picked so as to keep
+ * their shape, whatever the length of the run.
  *
  * @author Michael Kölling and David J. Barnes
  * @author Peter Sander
@@ -30,6 +36,8 @@ class GraphView implements SimulatorView {
     private static final int DELAY_BETWEEN_ITERATIONS = 100;  // msecs
     private static final int LABEL_HEIGHT = 50;
     private static final Color LIGHT_GRAY = new Color(0, 0, 0, 1.0);
+    // The largest number of points of a curve, about one per pixel.
+    private static final int MAX_POINTS = 500;
     private static GraphView instance;
     // private static GraphPanel graph;
     private static Label stepLabel;
@@ -49,16 +57,16 @@ class GraphView implements SimulatorView {
     private LineChart.Series<Number, Number> recoveredSeries;
     private LineChart.Series<Number, Number> infectedSeries;
     private LineChart.Series<Number, Number> deadSeries;
+    // The counts of every step of the run, and the points picked to show.
+    private final CountHistory history = new CountHistory();
+    private final int[] picked = new int[MAX_POINTS];
 
-    // A statistics object computing and storing simulation information
-    private final FieldStats stats;
     private int width;
     private int height;
     private BorderPane root;
     private final int step = 0;
 
     GraphView() {
-        stats = new FieldStats();
         states = new HashSet<>();
         instance = this;
     }
@@ -100,6 +108,8 @@ class GraphView implements SimulatorView {
         sc.setTitle("Peoples");
         xAxis.setLabel("X Axis");
         sc.setCreateSymbols(false);
+        // the points are moved at every step, too often to animate them
+        sc.setAnimated(false);
         xAxis.setAnimated(false);
         yAxis.setLabel("Y Axis");
         yAxis.setAutoRanging(false);
@@ -135,7 +145,6 @@ class GraphView implements SimulatorView {
      * @param peopleStatus The animal's Class object.
      * @param color       The color to be used for the given class.
      */
-    @Override
     public void setColor(State peopleStatus, Color color) {
         colors.put(peopleStatus, color);
         states = colors.keySet();
@@ -151,58 +160,88 @@ class GraphView implements SimulatorView {
      *
      * @param step  Which iteration step it is.
      * @param field The field whose status is to be displayed.
+     * @param stats The counts of the people at this step.
      */
     @Override
-    public void showStatus(int step, Field field) {
+    public void showStatus(int step, Field field, FieldStats stats) {
         update(step, field, stats);
     }
 
+    /**
+     * Keep the counts of the steps which are not shown, so that the curves
+     * still go through every step.
+     *
+     * @param skipped The counts of the steps skipped, in order.
+     */
+    @Override
+    public void showSkipped(CountHistory skipped) {
+        history.addAll(skipped);
+    }
+
     /**
      * Determine whether the simulation should continue to run.
      *
      * @return true If there is more than one species alive.
      */
     @Override
-    public boolean isViable(Field field) {
-        return stats.isViable(field);
+    public boolean isViable(FieldStats stats) {
+        return stats.isViable();
     }
 
     /**
      * Prepare for a new run.
      */
     public void reset() {
-        // newRun();
+        history.clear();
+        if (healthySeries != null) {
+            healthySeries.getData().clear();
+            recoveredSeries.getData().clear();
+            infectedSeries.getData().clear();
+            deadSeries.getData().clear();
+        }
     }
 
     /**
      * Dispay a new point of data.
      */
     void update(int step, pandemic.Field field, pandemic.FieldStats stats) {
-        stats.reset();
-        int healthyCount = stats.getPopulationCount(field,
-            State.HEALTHY);
-        healthySeries.getData()
-            .add(new XYChart.Data<>(step, healthyCount));
-        int recoveredCount = stats.getPopulationCount(field,
-            State.RECOVERED);
-        recoveredSeries.getData()
-            .add(new XYChart.Data<>(step, recoveredCount));
-
-        int infectedCount = stats.getPopulationCount(field,
-            State.INFECTED);
-        infectedSeries.getData()
-            .add(new XYChart.Data<>(step, infectedCount));
-
-        int deadCount = stats.getPopulationCount(field,
-            State.DEAD);
-        deadSeries.getData()
-            .add(new XYChart.Data<>(step, deadCount));
-
-        if (healthySeries.getData().size() > 54 && recoveredSeries.getData().size() > 54 && infectedSeries.getData().size() > 54 && deadSeries.getData().size() > 54) {
-            healthySeries.getData().remove(0);
-            recoveredSeries.getData().remove(0);
-            infectedSeries.getData().remove(0);
-            deadSeries.getData().remove(0);
+        history.add(stats);
+        show(healthySeries, State.HEALTHY);
+        show(recoveredSeries, State.RECOVERED);
+        show(infectedSeries, State.INFECTED);
+        show(deadSeries, State.DEAD);
+    }
+
+    /**
+     * Move the points of a curve to those picked from the history. The
+     * points already on the chart are kept and given their new values; only
+     * as many as the difference in number are added or removed.
+     */
+    private void show(LineChart.Series<Number, Number> series, State state) {
+        int count = history.downsample(state, MAX_POINTS, picked);
+        ObservableList<XYChart.Data<Number, Number>> data = series.getData();
+        int kept = Math.min(count, data.size());
+        for (int k = 0; k < kept; k++) {
+            XYChart.Data<Number, Number> point = data.get(k);
+            int x = history.getStep(picked[k]);
+            int y = history.getCount(state, picked[k]);
+            // boxed values are compared by reference, only set new ones
+            if (point.getXValue().intValue() != x) {
+                point.setXValue(x);
+            }
+            if (point.getYValue().intValue() != y) {
+                point.setYValue(y);
+            }
+        }
+        if (count < data.size()) {
+            data.remove(count, data.size());
+        } else if (count > kept) {
+            List<XYChart.Data<Number, Number>> added = new ArrayList<>(count - kept);
+            for (int k = kept; k < count; k++) {
+                added.add(new XYChart.Data<>(history.getStep(picked[k]),
+                    history.getCount(state, picked[k])));
+            }
+            data.addAll(added);
         }
     }
 }
@@ -1,17 +1,17 @@
 package pandemic;
 
-import javafx.geometry.Dimension2D;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Label;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 import static pandemic.State.*;
 
@@ -19,6 +19,10 @@ import static pandemic.State.*;
  * A graphical view of the simulation grid. The view displays a colored
  * rectangle for each location representing its contents. Colors for each type
  * of species can be defined using the setColor method.
+ * The field is painted into an array of pixels, one color per state tag of
+ * the occupancy words, which goes to the canvas in one go. When the change
+ * log of the field follows the one last painted, only the cells it lists
+ * are painted again.
  *
  * @author Michael Kölling and David J. Barnes
  * @author Peter Sander
@@ -34,19 +38,15 @@ class GridView implements SimulatorView {
     private static GridView instance;
     private final String STEP_PREFIX = "Step: ";
     private final String POPULATION_PREFIX = "Population: ";
-    // A map for storing colors for participants in the simulation
-    private final Map<State, Color> colors
-        = new HashMap<>() {{
-        put(RECOVERED, Color.ORANGE);
-        put(HEALTHY, Color.GREEN);
-        put(DEAD, Color.GRAY);
-        put(INFECTED, Color.RED);
-    }};
+    // The ARGB color of each state tag of the field's occupancy words: the
+    // empty color, then one per state ordinal, then the unknown color.
+    private final int[] palette = new int[Field.STATE_MASK + 1];
+    // The serial of the change log last painted, -1 if the whole field is
+    // to be painted again.
+    private long paintedSerial = -1;
     private Label stepLabel;
     private Label populationLbl;
     private final FieldView fieldView;
-    // A statistics object computing and storing simulation information
-    private final FieldStats stats;
     private final int width;
     private final int height;
     private BorderPane root;
@@ -65,7 +65,12 @@ class GridView implements SimulatorView {
     GridView(int height, int width) {
         this.width = width;
         this.height = height;
-        stats = new FieldStats();
+        Arrays.fill(palette, FieldView.argb(UNKNOWN_COLOR));
+        palette[Field.EMPTY] = FieldView.argb(EMPTY_COLOR);
+        setColor(RECOVERED, Color.ORANGE);
+        setColor(HEALTHY, Color.GREEN);
+        setColor(DEAD, Color.GRAY);
+        setColor(INFECTED, Color.RED);
         fieldView = new FieldView(height, width);
         instance = this;
     }
@@ -101,8 +106,8 @@ class GridView implements SimulatorView {
 
         root.setCenter(fieldView);
         stage.setScene(new Scene(root,
-            width * FieldView.GRID_VIEW_SCALING_FACTOR,
-            height * FieldView.GRID_VIEW_SCALING_FACTOR + 2 * LABEL_HEIGHT));
+            fieldView.getWidth(),
+            fieldView.getHeight() + 2 * LABEL_HEIGHT));
         stage.show();
     }
 
@@ -116,17 +121,9 @@ class GridView implements SimulatorView {
      * @param status The people's state object.
      * @param color       The color to be used for the given class.
      */
-    @Override
     public void setColor(State status, Color color) {
-        colors.put(status, color);
-    }
-
-    /**
-     * @return The color to be used for a given class of animal.
-     */
-    private Color getColor(State status) {
-        Color col = colors.get(status);
-        return col == null ? UNKNOWN_COLOR : col;
+        palette[status.ordinal() + 1] = FieldView.argb(color);
+        paintedSerial = -1;
     }
 
     /**
@@ -135,26 +132,20 @@ class GridView implements SimulatorView {
      *
      * @param step  Which iteration step it is.
      * @param field The field whose status is to be displayed.
+     * @param stats The counts of the people at this step.
      */
     @Override
-    public void showStatus(int step, pandemic.Field field) {
+    public void showStatus(int step, pandemic.Field field, FieldStats stats) {
         stepLabel.setText(STEP_PREFIX + step);
-        stats.reset();
-        fieldView.preparePaint();
-        for (int row = 0; row < field.getDepth(); row++) {
-            for (int col = 0; col < field.getWidth(); col++) {
-                Human human = field.getPeopleAt(row, col);
-                if (human != null) {
-                    stats.incrementCount(human.getStatus());
-                    fieldView.drawMark(col,
-                        row, getColor(human.getStatus()));
-                } else {
-                    fieldView.drawMark(col, row, EMPTY_COLOR);
-                }
-            }
+        ChangeLog changes = field.getChanges();
+        if (changes != null && !changes.isComplete()
+            && paintedSerial >= 0 && changes.getSerial() == paintedSerial + 1) {
+            fieldView.paint(changes, palette);
+        } else {
+            fieldView.paint(field, palette);
         }
-        stats.countFinished();
-        populationLbl.setText(stats.getPopulationDetails(field));
+        paintedSerial = changes == null ? -1 : changes.getSerial();
+        populationLbl.setText(stats.getPopulationDetails());
     }
 
     /**
@@ -162,8 +153,16 @@ class GridView implements SimulatorView {
      *
      * @return true If there is more than one species alive.
      */
-    public boolean isViable(Field field) {
-        return stats.isViable(field);
+    public boolean isViable(FieldStats stats) {
+        return stats.isViable();
+    }
+
+    /**
+     * The field is to log its changes, for only those to be painted.
+     */
+    @Override
+    public boolean wantsChanges() {
+        return true;
     }
 
     /**
@@ -171,7 +170,7 @@ class GridView implements SimulatorView {
      */
     @Override
     public void reset() {
-        // always a pleasure
+        paintedSerial = -1;
     }
 
 
@@ -183,42 +182,126 @@ class GridView implements SimulatorView {
      */
     private static class FieldView extends Canvas {
         private static final int GRID_VIEW_SCALING_FACTOR = 10;
+        // The largest side of the view, for a large field not to get out of
+        // the screen; each cell still takes at least one pixel.
+        private static final int MAX_VIEW_SIZE = 1000;
+        // The color of the lines between the cells, see-through.
+        private static final int GAP_COLOR = 0;
 
         private final int gridWidth;
         private final int gridHeight;
-        private int xScale, yScale;
-        private final Dimension2D size;
+        // The side of a cell, in pixels.
+        private final int scale;
+        // The pixels of the canvas, row by row, and the image they are
+        // copied to before it is drawn.
+        private final int[] pixels;
+        private final WritableImage image;
         private final GraphicsContext g;
 
         /**
          * Create a new FieldView component.
          */
         FieldView(int height, int width) {
-            super(width * GRID_VIEW_SCALING_FACTOR,
-                height * GRID_VIEW_SCALING_FACTOR);
+            this(height, width, Math.max(1,
+                Math.min(GRID_VIEW_SCALING_FACTOR, MAX_VIEW_SIZE / Math.max(height, width))));
+        }
+
+        private FieldView(int height, int width, int scale) {
+            super(width * scale, height * scale);
             gridHeight = height;
             gridWidth = width;
-            size = new Dimension2D(width * GRID_VIEW_SCALING_FACTOR,
-                height * GRID_VIEW_SCALING_FACTOR);
+            this.scale = scale;
+            pixels = new int[width * scale * height * scale];
+            image = new WritableImage(width * scale, height * scale);
             g = getGraphicsContext2D();
         }
 
         /**
-         * Prepare for a new round of painting. Since the component may be
-         * resized, compute the scaling factor again.
+         * @return The ARGB value of a color.
+         */
+        static int argb(Color color) {
+            return (int) Math.round(color.getOpacity() * 255) << 24
+                | (int) Math.round(color.getRed() * 255) << 16
+                | (int) Math.round(color.getGreen() * 255) << 8
+                | (int) Math.round(color.getBlue() * 255);
+        }
+
+        /**
+         * Paint the field: each cell takes a square of scale pixels a side in
+         * the color of its state tag, less a line between the cells when
+         * there is room for it. The first pixel row of each row of cells is
+         * painted cell by cell and copied to the others.
+         *
+         * @param field   The field, of the size of the view.
+         * @param palette The ARGB color of each state tag.
          */
-        void preparePaint() {
-            g.clearRect(0, 0, size.getWidth(), size.getHeight());
-            xScale = (int) size.getWidth() / gridWidth;
-            yScale = (int) size.getHeight() / gridHeight;
+        void paint(Field field, int[] palette) {
+            int pixelWidth = gridWidth * scale;
+            int gap = scale > 2 ? 1 : 0;
+            int at = 0;
+            for (int row = 0; row < gridHeight; row++) {
+                int rowStart = at;
+                int cell = field.cell(row, 0);
+                for (int col = 0; col < gridWidth; col++, cell++) {
+                    int color = palette[field.getWord(cell) & Field.STATE_MASK];
+                    for (int k = gap; k < scale; k++) {
+                        pixels[at++] = color;
+                    }
+                    for (int k = 0; k < gap; k++) {
+                        pixels[at++] = GAP_COLOR;
+                    }
+                }
+                for (int k = gap + 1; k < scale; k++, at += pixelWidth) {
+                    System.arraycopy(pixels, rowStart, pixels, at, pixelWidth);
+                }
+                for (int k = 0; k < gap; k++, at += pixelWidth) {
+                    Arrays.fill(pixels, at, at + pixelWidth, GAP_COLOR);
+                }
+            }
+            image.getPixelWriter().setPixels(0, 0, pixelWidth, gridHeight * scale,
+                PixelFormat.getIntArgbInstance(), pixels, 0, pixelWidth);
+            g.clearRect(0, 0, getWidth(), getHeight());
+            g.drawImage(image, 0, 0);
         }
 
         /**
-         * Paint on grid location on this field in a given color.
+         * Paint again the cells which changed since the field was last
+         * painted, and draw the smallest rectangle around them.
+         *
+         * @param changes The change log following the one last painted.
+         * @param palette The ARGB color of each state tag.
          */
-        void drawMark(int x, int y, Color color) {
-            g.setFill(color);
-            g.fillRect(x * xScale, y * yScale, xScale - 1, yScale - 1);
+        void paint(ChangeLog changes, int[] palette) {
+            if (changes.size() == 0) {
+                return;
+            }
+            int pixelWidth = gridWidth * scale;
+            int side = scale > 2 ? scale - 1 : scale;
+            int top = gridHeight;
+            int left = gridWidth;
+            int bottom = -1;
+            int right = -1;
+            for (int k = 0; k < changes.size(); k++) {
+                int row = changes.getLocation(k) / gridWidth;
+                int col = changes.getLocation(k) % gridWidth;
+                int color = palette[changes.getTag(k)];
+                int at = row * scale * pixelWidth + col * scale;
+                for (int line = 0; line < side; line++, at += pixelWidth) {
+                    Arrays.fill(pixels, at, at + side, color);
+                }
+                top = Math.min(top, row);
+                bottom = Math.max(bottom, row);
+                left = Math.min(left, col);
+                right = Math.max(right, col);
+            }
+            int x = left * scale;
+            int y = top * scale;
+            int w = (right - left + 1) * scale;
+            int h = (bottom - top + 1) * scale;
+            image.getPixelWriter().setPixels(x, y, w, h,
+                PixelFormat.getIntArgbInstance(), pixels, y * pixelWidth + x, pixelWidth);
+            g.clearRect(x, y, w, h);
+            g.drawImage(image, x, y, w, h, x, y, w, h);
         }
     }
 }